@@ -0,0 +1,81 @@
+package pl.kopytka.benchmark;
+
+import org.h2.tools.Server;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Signup latency of check-then-insert ({@code existsByEmail} followed by an INSERT) versus a single INSERT that
+ * relies on the unique index on the normalized email. Every {@code duplicateEvery}-th signup reuses an existing
+ * email, so both outcomes are measured. H2 runs as a TCP server so that each statement is a real round trip.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+public class CustomerSignupBenchmark {
+
+    @Param({"checkThenInsert", "insertOnly"})
+    private String strategy;
+
+    @Param({"10"})
+    private int duplicateEvery;
+
+    private Server server;
+    private Connection connection;
+    private PreparedStatement exists;
+    private PreparedStatement insert;
+    private long signups;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        server = Server.createTcpServer("-tcpPort", "0", "-ifNotExists").start();
+        connection = DriverManager.getConnection(
+                "jdbc:h2:tcp://localhost:" + server.getPort() + "/mem:signup;DB_CLOSE_DELAY=-1", "sa", "");
+        try (var statement = connection.createStatement()) {
+            statement.execute("""
+                    create table customers (
+                        customer_id uuid primary key,
+                        email varchar(255) not null,
+                        normalized_email varchar(255) not null,
+                        constraint uk_customers_normalized_email unique (normalized_email))""");
+            statement.execute("insert into customers values (random_uuid(), 'taken@gmail.com', 'taken@gmail.com')");
+        }
+        exists = connection.prepareStatement("select 1 from customers where normalized_email = ? fetch first 1 rows only");
+        insert = connection.prepareStatement("insert into customers values (?, ?, ?)");
+    }
+
+    @Benchmark
+    public boolean signup() throws SQLException {
+        var email = ++signups % duplicateEvery == 0 ? "taken@gmail.com" : "customer" + signups + "@gmail.com";
+        if ("checkThenInsert".equals(strategy)) {
+            exists.setString(1, email);
+            try (var result = exists.executeQuery()) {
+                if (result.next()) {
+                    return false;
+                }
+            }
+        }
+        insert.setObject(1, UUID.randomUUID());
+        insert.setString(2, email);
+        insert.setString(3, email);
+        try {
+            return insert.executeUpdate() == 1;
+        } catch (SQLIntegrityConstraintViolationException ex) {
+            return false;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+        server.stop();
+    }
+}
@@ -0,0 +1,85 @@
+package pl.kopytka.benchmark;
+
+import lombok.extern.slf4j.Slf4j;
+import org.openjdk.jmh.annotations.*;
+import pl.kopytka.domain.UuidV7;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Comparator;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Insert throughput into a UUID primary key that already holds {@code rows} rows, for random (v4) and
+ * time-ordered (v7) keys. The database file size per row is logged at the end of each trial.
+ * Run with {@code -Djmh.include=IdInsertBenchmark} and e.g. {@code -p rows=10000000} for the large variant.
+ */
+@Slf4j
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class IdInsertBenchmark {
+
+    private static final int BATCH_SIZE = 1000;
+
+    @Param({"v4", "v7"})
+    private String idType;
+
+    @Param({"1000000"})
+    private int rows;
+
+    private Path directory;
+    private Connection connection;
+    private Supplier<UUID> ids;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, SQLException {
+        ids = "v7".equals(idType) ? UuidV7::next : UUID::randomUUID;
+        directory = Files.createTempDirectory("id-insert-benchmark");
+        connection = DriverManager.getConnection("jdbc:h2:file:" + directory.resolve("db"), "sa", "");
+        connection.setAutoCommit(false);
+        try (var statement = connection.createStatement()) {
+            statement.execute("create table orders (order_id uuid primary key, create_at timestamp(6) with time zone)");
+        }
+        for (int inserted = 0; inserted < rows; inserted += BATCH_SIZE) {
+            insertBatch();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void insertBatch() throws SQLException {
+        try (var insert = connection.prepareStatement("insert into orders values (?, current_timestamp)")) {
+            for (int i = 0; i < BATCH_SIZE; i++) {
+                insert.setObject(1, ids.get());
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+        connection.commit();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException, SQLException {
+        long count;
+        try (var statement = connection.createStatement();
+             var result = statement.executeQuery("select count(*) from orders")) {
+            result.next();
+            count = result.getLong(1);
+            statement.execute("checkpoint sync");
+        }
+        connection.close();
+        long size = Files.size(directory.resolve("db.mv.db"));
+        log.info("{}: {} rows, database file {} MB, {} bytes per row", idType, count, size / (1024 * 1024), size / count);
+        try (var files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package pl.kopytka.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import pl.kopytka.domain.Money;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MoneyBenchmark {
+
+    private BigDecimal amount;
+    private Money price;
+    private Money otherPrice;
+
+    @Setup
+    public void setUp() {
+        amount = new BigDecimal("123.456");
+        price = new Money(new BigDecimal("123.45"));
+        otherPrice = new Money(new BigDecimal("67.89"));
+    }
+
+    @Benchmark
+    public Money create() {
+        return new Money(amount);
+    }
+
+    @Benchmark
+    public Money add() {
+        return price.add(otherPrice);
+    }
+
+    @Benchmark
+    public Money subtract() {
+        return price.subtract(otherPrice);
+    }
+
+    @Benchmark
+    public Money multiply() {
+        return price.multiply(3);
+    }
+
+    @Benchmark
+    public boolean compare() {
+        return price.equals(otherPrice);
+    }
+}
@@ -0,0 +1,58 @@
+package pl.kopytka.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import pl.kopytka.domain.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class OrderBenchmark {
+
+    @Param({"1", "10", "100", "1000"})
+    private int items;
+
+    private Customer customer;
+    private OrderAddress address;
+    private List<ProductId> productIds;
+    private Money itemPrice;
+    private Quantity quantity;
+    private Money itemTotalPrice;
+    private Money orderPrice;
+
+    @Setup
+    public void setUp() {
+        customer = new Customer("Waldemar", "Kiepski", "waldek@gmail.com");
+        address = new OrderAddress("Ćwiartki", "51-000", "Wrocław", "3/4");
+        productIds = new ArrayList<>(items);
+        for (int i = 0; i < items; i++) {
+            productIds.add(ProductId.newOne());
+        }
+        itemPrice = new Money(new BigDecimal("12.34"));
+        quantity = new Quantity(3);
+        itemTotalPrice = new Money(new BigDecimal("37.02"));
+        orderPrice = new Money(new BigDecimal("37.02").multiply(BigDecimal.valueOf(items)));
+    }
+
+    @Benchmark
+    public List<OrderItem> createOrderItems() {
+        return orderItems();
+    }
+
+    @Benchmark
+    public Order createOrder() {
+        return new Order(customer, orderPrice, orderItems(), address);
+    }
+
+    private List<OrderItem> orderItems() {
+        var orderItems = new ArrayList<OrderItem>(items);
+        for (var productId : productIds) {
+            orderItems.add(new OrderItem(productId, itemPrice, quantity, itemTotalPrice));
+        }
+        return orderItems;
+    }
+}
@@ -0,0 +1,63 @@
+package pl.kopytka.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import pl.kopytka.application.OrderMapper;
+import pl.kopytka.application.OrderMapperImpl;
+import pl.kopytka.application.dto.CreateOrderAddressDto;
+import pl.kopytka.application.dto.CreateOrderItemDto;
+import pl.kopytka.application.dto.OrderAddressDto;
+import pl.kopytka.application.dto.OrderItemDto;
+import pl.kopytka.domain.OrderAddress;
+import pl.kopytka.domain.OrderItem;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class OrderMapperBenchmark {
+
+    @Param({"1", "10", "100", "1000"})
+    private int items;
+
+    private final OrderMapper orderMapper = new OrderMapperImpl();
+    private List<CreateOrderItemDto> createOrderItemDtos;
+    private CreateOrderAddressDto createOrderAddressDto;
+    private List<OrderItem> orderItems;
+    private OrderAddress orderAddress;
+
+    @Setup
+    public void setUp() {
+        createOrderItemDtos = new ArrayList<>(items);
+        for (int i = 0; i < items; i++) {
+            createOrderItemDtos.add(new CreateOrderItemDto(UUID.randomUUID(), 3, new BigDecimal("12.34"), new BigDecimal("37.02")));
+        }
+        createOrderAddressDto = new CreateOrderAddressDto("Ćwiartki", "51-000", "Wrocław", "3/4");
+        orderItems = orderMapper.toOrderItems(createOrderItemDtos);
+        orderAddress = orderMapper.toOrderAddress(createOrderAddressDto);
+    }
+
+    @Benchmark
+    public List<OrderItem> toOrderItems() {
+        return orderMapper.toOrderItems(createOrderItemDtos);
+    }
+
+    @Benchmark
+    public List<OrderItemDto> toOrderItemDtos() {
+        return orderMapper.toOrderItemDtos(orderItems);
+    }
+
+    @Benchmark
+    public OrderAddress toOrderAddress() {
+        return orderMapper.toOrderAddress(createOrderAddressDto);
+    }
+
+    @Benchmark
+    public OrderAddressDto toOrderAddressDto() {
+        return orderMapper.toOrderAddressDto(orderAddress);
+    }
+}
@@ -0,0 +1,79 @@
+package pl.kopytka.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+import pl.kopytka.KopytkaNowApplication;
+import pl.kopytka.application.CustomerService;
+import pl.kopytka.application.OrderRepository;
+import pl.kopytka.application.OrderService;
+import pl.kopytka.application.dto.CreateCustomerDto;
+import pl.kopytka.application.dto.CreateOrderAddressDto;
+import pl.kopytka.application.dto.CreateOrderDto;
+import pl.kopytka.application.dto.CreateOrderItemDto;
+import pl.kopytka.domain.OrderId;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loads an order, pays it and flushes, the way {@code OrderService.pay} does, then rolls back so every invocation
+ * pays the same pending order. Run with {@code -prof gc} to compare allocation per payment across item counts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+public class OrderPayFlushBenchmark {
+
+    @Param({"10", "300"})
+    private int items;
+
+    private ConfigurableApplicationContext context;
+    private OrderRepository orderRepository;
+    private TransactionTemplate transactionTemplate;
+    private OrderId orderId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(KopytkaNowApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:pay-flush;DB_CLOSE_DELAY=-1",
+                        "kopytka.outbox.relay-enabled=false",
+                        "logging.level.root=warn")
+                .run();
+        orderRepository = context.getBean(OrderRepository.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+
+        var customerId = context.getBean(CustomerService.class)
+                .addCustomer(new CreateCustomerDto("Ferdynand", "Kiepski", "ferdek@gmail.com")).id();
+        var basketItems = new ArrayList<CreateOrderItemDto>(items);
+        for (int i = 0; i < items; i++) {
+            basketItems.add(new CreateOrderItemDto(UUID.randomUUID(), 1, new BigDecimal("10.00"), new BigDecimal("10.00")));
+        }
+        var address = new CreateOrderAddressDto("Ćwiartki", "51-000", "Wrocław", "3/4");
+        orderId = context.getBean(OrderService.class).createOrder(new CreateOrderDto(customerId,
+                BigDecimal.TEN.multiply(BigDecimal.valueOf(items)), basketItems, address));
+    }
+
+    @Benchmark
+    public int payAndFlush() {
+        return transactionTemplate.execute(status -> {
+            var order = orderRepository.findById(orderId).orElseThrow();
+            order.pay();
+            orderRepository.flush();
+            status.setRollbackOnly();
+            return order.getVersion();
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+}
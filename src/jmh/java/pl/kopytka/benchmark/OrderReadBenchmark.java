@@ -0,0 +1,95 @@
+package pl.kopytka.benchmark;
+
+import org.h2.tools.Server;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+import pl.kopytka.KopytkaNowApplication;
+import pl.kopytka.application.CustomerService;
+import pl.kopytka.application.OrderRepository;
+import pl.kopytka.application.OrderService;
+import pl.kopytka.application.dto.CreateCustomerDto;
+import pl.kopytka.application.dto.CreateOrderAddressDto;
+import pl.kopytka.application.dto.CreateOrderDto;
+import pl.kopytka.application.dto.CreateOrderItemDto;
+import pl.kopytka.application.dto.OrderDto;
+import pl.kopytka.domain.OrderId;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Repeated reads of one order with the second-level cache enabled and disabled: {@code loadAggregate} loads the
+ * {@code Order} entity with its customer, address and items like {@code pay} does, {@code readDto} is the single
+ * projection query behind {@code getOrderById}. H2 runs as a TCP server so that each statement is a real round trip.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+public class OrderReadBenchmark {
+
+    @Param({"true", "false"})
+    private boolean secondLevelCache;
+
+    @Param({"10"})
+    private int items;
+
+    private Server server;
+    private ConfigurableApplicationContext context;
+    private OrderService orderService;
+    private OrderRepository orderRepository;
+    private TransactionTemplate transactionTemplate;
+    private OrderId orderId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        server = Server.createTcpServer("-tcpPort", "0", "-ifNotExists").start();
+        context = new SpringApplicationBuilder(KopytkaNowApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:tcp://localhost:" + server.getPort() + "/mem:orders;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.properties.hibernate.cache.use_second_level_cache=" + secondLevelCache,
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "kopytka.outbox.relay-enabled=false",
+                        "logging.level.root=warn")
+                .run();
+        orderService = context.getBean(OrderService.class);
+        orderRepository = context.getBean(OrderRepository.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+
+        var customerId = context.getBean(CustomerService.class)
+                .addCustomer(new CreateCustomerDto("Ferdynand", "Kiepski", "ferdek@gmail.com")).id();
+        var basketItems = new ArrayList<CreateOrderItemDto>(items);
+        for (int i = 0; i < items; i++) {
+            basketItems.add(new CreateOrderItemDto(UUID.randomUUID(), 1, new BigDecimal("10.00"), new BigDecimal("10.00")));
+        }
+        var address = new CreateOrderAddressDto("Ćwiartki", "51-000", "Wrocław", "3/4");
+        orderId = orderService.createOrder(new CreateOrderDto(customerId, BigDecimal.TEN.multiply(BigDecimal.valueOf(items)),
+                basketItems, address));
+    }
+
+    @Benchmark
+    public int loadAggregate() {
+        return transactionTemplate.execute(status -> {
+            var order = orderRepository.findById(orderId).orElseThrow();
+            return order.getItems().size() + order.getAddress().getCity().length() + order.getCustomer().getEmail().length();
+        });
+    }
+
+    @Benchmark
+    public OrderDto readDto() {
+        return orderService.getOrderById(orderId);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        server.stop();
+    }
+}
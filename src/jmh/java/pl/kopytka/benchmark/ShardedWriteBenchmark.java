@@ -0,0 +1,90 @@
+package pl.kopytka.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import pl.kopytka.domain.CustomerId;
+import pl.kopytka.domain.OrderId;
+import pl.kopytka.domain.UuidV7;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Comparator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Order insert throughput of concurrent writers as the orders are spread over more H2 databases. Each insert is
+ * routed by the bucket of its customer, like the application does, and committed on its own.
+ * Run with {@code -Djmh.include=ShardedWriteBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(8)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ShardedWriteBenchmark {
+
+    @Param({"1", "2", "4"})
+    private int shards;
+
+    private Path directory;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, SQLException {
+        directory = Files.createTempDirectory("sharded-write-benchmark");
+        for (int shard = 0; shard < shards; shard++) {
+            try (var connection = connect(shard); var statement = connection.createStatement()) {
+                statement.execute("create table orders (order_id uuid primary key, customer_id uuid not null, "
+                        + "price numeric(19, 2) not null, create_at timestamp(6) with time zone)");
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Writer {
+
+        private Connection[] connections;
+
+        @Setup(Level.Trial)
+        public void setUp(ShardedWriteBenchmark benchmark) throws SQLException {
+            connections = new Connection[benchmark.shards];
+            for (int shard = 0; shard < benchmark.shards; shard++) {
+                connections[shard] = benchmark.connect(shard);
+                connections[shard].setAutoCommit(false);
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws SQLException {
+            for (var connection : connections) {
+                connection.close();
+            }
+        }
+    }
+
+    @Benchmark
+    public void insertOrder(Writer writer) throws SQLException {
+        var customerId = new CustomerId(UuidV7.next(ThreadLocalRandom.current().nextInt(UuidV7.BUCKETS)));
+        var connection = writer.connections[customerId.bucket() % shards];
+        try (var insert = connection.prepareStatement("insert into orders values (?, ?, 20.00, current_timestamp)")) {
+            insert.setObject(1, OrderId.newOne(customerId).id());
+            insert.setObject(2, customerId.id());
+            insert.executeUpdate();
+        }
+        connection.commit();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (var files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    private Connection connect(int shard) throws SQLException {
+        return DriverManager.getConnection("jdbc:h2:file:" + directory.resolve("shard" + shard), "sa", "");
+    }
+}
@@ -0,0 +1,68 @@
+package pl.kopytka.application;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import pl.kopytka.application.dto.CustomerDto;
+import pl.kopytka.domain.Customer;
+import pl.kopytka.domain.CustomerId;
+
+import java.util.Optional;
+import java.util.function.Function;
+
+@Component
+class CustomerCache {
+
+    private final Cache<CustomerId, CachedCustomer> cache;
+
+    CustomerCache(CustomerCacheProperties properties, MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.maximumSize())
+                .expireAfterWrite(properties.timeToLive())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "customers");
+    }
+
+    /**
+     * {@code loader} must build the entry on the shard it found the customer on.
+     */
+    Optional<CachedCustomer> get(CustomerId customerId, Function<CustomerId, Optional<CachedCustomer>> loader) {
+        return Optional.ofNullable(cache.get(customerId, id -> loader.apply(id).orElse(null)));
+    }
+
+    /**
+     * Shard the cached customer is stored on, which is not its home shard if it was written before its bucket
+     * was moved.
+     */
+    Optional<Integer> shardOf(CustomerId customerId) {
+        return Optional.ofNullable(cache.getIfPresent(customerId)).map(CachedCustomer::shard);
+    }
+
+    /**
+     * Keeps whichever entry has the higher version, so a load that read the row before a concurrent
+     * update committed cannot overwrite the newer state.
+     */
+    void refresh(Customer customer) {
+        var fresh = CachedCustomer.of(customer);
+        cache.asMap().compute(customer.getCustomerId(),
+                (id, cached) -> cached == null || cached.version() < fresh.version() ? fresh : cached);
+    }
+
+    void evict(CustomerId customerId) {
+        cache.invalidate(customerId);
+    }
+
+    record CachedCustomer(CustomerDto customer, int version, int shard) {
+
+        /**
+         * Must be called on the shard {@code customer} was read from or written to.
+         */
+        static CachedCustomer of(Customer customer) {
+            return new CachedCustomer(new CustomerDto(customer.getCustomerId().id(), customer.getFirstName(),
+                    customer.getLastName(), customer.getEmail()), customer.getVersion(), ShardContext.current());
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package pl.kopytka.application;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import pl.kopytka.application.dto.CustomerOrderStatsDto;
+import pl.kopytka.application.dto.CustomerOrderStatsMismatchDto;
+import pl.kopytka.application.dto.PaidOrderRow;
+import pl.kopytka.domain.CustomerOrderStats;
+import pl.kopytka.domain.Money;
+import pl.kopytka.domain.Order;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+
+import static java.util.stream.Collectors.*;
+
+/**
+ * Keeps {@code customer_order_stats} in step with orders. Incremental updates must join the transaction
+ * that changes the orders; {@link #rebuild()} and {@link #findInconsistencies()} recompute the totals from
+ * the orders table, shard by shard.
+ */
+@Component
+@RequiredArgsConstructor
+public class CustomerOrderStatsProjection {
+
+    private final CustomerOrderStatsRepository customerOrderStatsRepository;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate transactionTemplate;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void orderCreated(Order order) {
+        customerOrderStatsRepository.addOrders(customerId(order), 1, order.getCreateAt());
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void ordersCreated(List<Order> orders) {
+        orders.stream()
+                .collect(groupingBy(this::customerId, mapping(Order::getCreateAt, toList())))
+                .forEach((customerId, createAts) -> customerOrderStatsRepository.addOrders(
+                        customerId, createAts.size(), createAts.stream().max(Comparator.naturalOrder()).orElseThrow()));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void orderPaid(PaidOrderRow order) {
+        customerOrderStatsRepository.addPayments(order.customerId(), 1, order.price().amount());
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void ordersPaid(List<Order> orders) {
+        orders.stream()
+                .collect(groupingBy(this::customerId, mapping(Order::getPrice, toList())))
+                .forEach((customerId, prices) -> customerOrderStatsRepository.addPayments(
+                        customerId, prices.size(), prices.stream().reduce(Money.ZERO, Money::add).amount()));
+    }
+
+    /**
+     * {@code shard} is the one holding the customer, which differs from its home shard for customers written
+     * before their bucket was moved.
+     */
+    public Optional<CustomerOrderStatsDto> findStats(UUID customerId, int shard) {
+        return shardRouter.on(shard, () -> customerOrderStatsRepository.findById(customerId)
+                .map(CustomerOrderStatsProjection::toDto));
+    }
+
+    /**
+     * Replaces the projection with totals recomputed from the orders table. Orders written while the rebuild
+     * runs may be missed, so it belongs in a maintenance window; {@link #findInconsistencies()} tells whether it
+     * is needed.
+     */
+    public long rebuild() {
+        return shardRouter.onEachShard(() -> transactionTemplate.execute(status -> rebuildShard())).stream()
+                .mapToLong(Long::longValue)
+                .sum();
+    }
+
+    private long rebuildShard() {
+        customerOrderStatsRepository.deleteAllStats();
+        var rebuilt = new ArrayList<CustomerOrderStats>();
+        try (var computed = customerOrderStatsRepository.streamComputedFromOrders()) {
+            computed.map(CustomerOrderStatsProjection::toEntity).forEach(stats -> {
+                rebuilt.add(stats);
+                if (rebuilt.size() == 500) {
+                    customerOrderStatsRepository.persistAll(rebuilt);
+                    rebuilt.clear();
+                }
+            });
+        }
+        customerOrderStatsRepository.persistAll(rebuilt);
+        return customerOrderStatsRepository.count();
+    }
+
+    /**
+     * Compares the projection with totals recomputed from the orders table.
+     */
+    public List<CustomerOrderStatsMismatchDto> findInconsistencies() {
+        var readOnlyTransaction = new TransactionTemplate(Objects.requireNonNull(transactionTemplate.getTransactionManager()));
+        readOnlyTransaction.setReadOnly(true);
+        return shardRouter.onEachShard(() -> readOnlyTransaction.execute(status -> findShardInconsistencies())).stream()
+                .flatMap(List::stream)
+                .toList();
+    }
+
+    private List<CustomerOrderStatsMismatchDto> findShardInconsistencies() {
+        var projected = customerOrderStatsRepository.findAll().stream()
+                .map(CustomerOrderStatsProjection::toDto)
+                .collect(toMap(CustomerOrderStatsDto::customerId, Function.identity()));
+        var mismatches = new ArrayList<CustomerOrderStatsMismatchDto>();
+        try (var computed = customerOrderStatsRepository.streamComputedFromOrders()) {
+            computed.forEach(expected -> {
+                var actual = projected.remove(expected.customerId());
+                if (actual == null || !expected.sameAs(actual)) {
+                    mismatches.add(new CustomerOrderStatsMismatchDto(expected.customerId(), expected, actual));
+                }
+            });
+        }
+        projected.values().stream()
+                .filter(actual -> !actual.sameAs(CustomerOrderStatsDto.empty(actual.customerId())))
+                .forEach(actual -> mismatches.add(new CustomerOrderStatsMismatchDto(
+                        actual.customerId(), CustomerOrderStatsDto.empty(actual.customerId()), actual)));
+        return mismatches;
+    }
+
+    private UUID customerId(Order order) {
+        return order.getCustomer().getCustomerId().id();
+    }
+
+    private static CustomerOrderStatsDto toDto(CustomerOrderStats stats) {
+        return new CustomerOrderStatsDto(stats.getCustomerId(), stats.getOrderCount(), stats.getPaidOrderCount(),
+                stats.getPaidRevenue(), stats.getLastOrderAt());
+    }
+
+    private static CustomerOrderStats toEntity(CustomerOrderStatsDto stats) {
+        return new CustomerOrderStats(stats.customerId(), stats.orderCount(), stats.paidOrderCount(),
+                stats.paidRevenue(), stats.lastOrderAt());
+    }
+}
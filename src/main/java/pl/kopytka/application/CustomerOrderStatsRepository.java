@@ -0,0 +1,56 @@
+package pl.kopytka.application;
+
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import pl.kopytka.application.dto.CustomerOrderStatsDto;
+import pl.kopytka.domain.CustomerOrderStats;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+interface CustomerOrderStatsRepository extends JpaRepository<CustomerOrderStats, UUID>, PersistingRepository<CustomerOrderStats> {
+
+    /**
+     * Upserts in one statement, so the first orders of a customer placed concurrently cannot both insert the row.
+     */
+    @Modifying
+    @Query("""
+            insert into customer_order_stats (customerId, orderCount, paidOrderCount, paidRevenue, lastOrderAt)
+            values (:customerId, :orderCount, 0, 0, :lastOrderAt)
+            on conflict (customerId) do update
+            set orderCount = orderCount + excluded.orderCount,
+                lastOrderAt = greatest(coalesce(lastOrderAt, excluded.lastOrderAt), excluded.lastOrderAt)""")
+    void addOrders(UUID customerId, long orderCount, Instant lastOrderAt);
+
+    @Modifying
+    @Query("""
+            insert into customer_order_stats (customerId, orderCount, paidOrderCount, paidRevenue, lastOrderAt)
+            values (:customerId, 0, :paidOrderCount, :paidRevenue, null)
+            on conflict (customerId) do update
+            set paidOrderCount = paidOrderCount + excluded.paidOrderCount,
+                paidRevenue = paidRevenue + excluded.paidRevenue""")
+    void addPayments(UUID customerId, long paidOrderCount, BigDecimal paidRevenue);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("""
+            select new pl.kopytka.application.dto.CustomerOrderStatsDto(
+                o.customer.customerId.customerId,
+                count(o),
+                sum(case when o.status = pl.kopytka.domain.OrderStatus.PAID then 1 else 0 end),
+                sum(case when o.status = pl.kopytka.domain.OrderStatus.PAID then o.price end),
+                max(o.createAt))
+            from orders o
+            group by o.customer.customerId.customerId
+            order by o.customer.customerId.customerId""")
+    Stream<CustomerOrderStatsDto> streamComputedFromOrders();
+
+    @Modifying
+    @Query("delete from customer_order_stats")
+    void deleteAllStats();
+}
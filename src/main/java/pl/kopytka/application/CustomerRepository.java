@@ -1,10 +1,27 @@
 package pl.kopytka.application;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import pl.kopytka.domain.Customer;
 import pl.kopytka.domain.CustomerId;
 
-public interface CustomerRepository extends JpaRepository<Customer, CustomerId> {
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
 
-    boolean existsByEmail(String email);
+public interface CustomerRepository extends JpaRepository<Customer, CustomerId>, PersistingRepository<Customer> {
+
+    @Query("select c.normalizedEmail from customers c where c.normalizedEmail in :normalizedEmails")
+    List<String> findExistingNormalizedEmails(Collection<String> normalizedEmails);
+
+    /**
+     * Unlike {@code findById}, always queries the current shard: the second-level cache does not know which shard
+     * an entity was read from.
+     */
+    @Query("select c from customers c where c.customerId = :customerId")
+    Optional<Customer> findOnShardById(CustomerId customerId);
+
+    @Query("select c.customerId.customerId from customers c where c.customerId in :customerIds")
+    List<UUID> findExistingIds(Collection<CustomerId> customerIds);
 }
@@ -1,34 +1,222 @@
 package pl.kopytka.application;
 
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import pl.kopytka.application.dto.CreateCustomerDto;
 import pl.kopytka.application.dto.CustomerDto;
+import pl.kopytka.application.dto.CustomerImportErrorDto;
+import pl.kopytka.application.dto.CustomerImportReportDto;
+import pl.kopytka.application.dto.CustomerImportRow;
+import pl.kopytka.application.dto.CustomerOrderStatsDto;
+import pl.kopytka.application.dto.VersionedDto;
 import pl.kopytka.application.exception.CustomerAlreadyExistsException;
 import pl.kopytka.application.exception.CustomerNotFoundException;
 import pl.kopytka.domain.Customer;
 import pl.kopytka.domain.CustomerId;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
+import static pl.kopytka.application.ServiceStage.*;
+
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class CustomerService {
 
     private final CustomerRepository customerRepository;
+    private final CustomerCache customerCache;
+    private final ServiceStageTimers stageTimers;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final CustomerImportProperties customerImportProperties;
+    private final CustomerOrderStatsProjection customerOrderStats;
+    private final ShardRouter shardRouter;
+    private final ReplicaReads replicaReads;
 
     public CustomerDto getCustomer(UUID id) {
+        return getVersionedCustomer(id).dto();
+    }
+
+    /**
+     * Served from the customer cache, which already tracks the row version.
+     */
+    public VersionedDto<CustomerDto> getVersionedCustomer(UUID id) {
         CustomerId customerId = new CustomerId(id);
-        return customerRepository.findById(customerId)
-                .map(customer -> new CustomerDto(customer.getCustomerId().id(), customer.getFirstName(), customer.getLastName(), customer.getEmail()))
+        return stageTimers.record(GET_CUSTOMER_LOAD, () -> customerCache.get(customerId, this::findCustomer))
+                .map(cached -> new VersionedDto<>(cached.customer(), cached.version()))
+                .orElseThrow(() -> new CustomerNotFoundException(id));
+    }
+
+    private Optional<CustomerCache.CachedCustomer> findCustomer(CustomerId customerId) {
+        return shardRouter.find(customerId.id(), () -> replicaReads.find(() -> customerRepository.findOnShardById(customerId))
+                .map(CustomerCache.CachedCustomer::of));
+    }
+
+    /**
+     * Reads the precomputed totals by primary key on the shard holding the customer, which is where orders
+     * update them. Customers without orders have no row yet.
+     */
+    public CustomerOrderStatsDto getCustomerOrderStats(UUID id) {
+        var customer = customerCache.get(new CustomerId(id), this::findCustomer)
                 .orElseThrow(() -> new CustomerNotFoundException(id));
+        return customerOrderStats.findStats(id, customer.shard())
+                .orElseGet(() -> CustomerOrderStatsDto.empty(id));
     }
 
+    /**
+     * Inserts without checking the email first; the unique constraint on the normalized email decides races.
+     */
     public CustomerId addCustomer(CreateCustomerDto customerDto) {
-        if (customerRepository.existsByEmail(customerDto.email())) {
-            throw new CustomerAlreadyExistsException(customerDto.email());
-        }
         var customer = new Customer(customerDto.firstName(), customerDto.lastName(), customerDto.email());
-        return customerRepository.save(customer).getCustomerId();
+        try {
+            stageTimers.record(ADD_CUSTOMER_PERSIST, () -> shardRouter.onShardOf(customer.getCustomerId().id(),
+                    () -> customerRepository.persistAndFlush(customer)));
+        } catch (DataIntegrityViolationException ex) {
+            if (isEmailTaken(ex)) {
+                throw new CustomerAlreadyExistsException(customerDto.email());
+            }
+            throw ex;
+        }
+        return customer.getCustomerId();
+    }
+
+    private static boolean isEmailTaken(DataIntegrityViolationException ex) {
+        return ex.getCause() instanceof ConstraintViolationException violation
+                && violation.getConstraintName() != null
+                && violation.getConstraintName().toLowerCase(Locale.ROOT).contains(Customer.NORMALIZED_EMAIL_CONSTRAINT);
+    }
+
+    /**
+     * Imports customers read lazily from {@code rows}. Emails are deduplicated within the import, checked against
+     * existing customers with one {@code IN} query per chunk and shard and inserted in JDBC batches, one transaction
+     * per chunk and shard.
+     * Rejected rows are reported instead of failing the import.
+     */
+    public CustomerImportReportDto importCustomers(Iterator<CustomerImportRow> rows) {
+        var seenEmails = new HashSet<String>();
+        var errors = new ArrayList<CustomerImportErrorDto>();
+        var chunk = new ArrayList<CustomerImportRow>(customerImportProperties.chunkSize());
+        int imported = 0;
+
+        while (rows.hasNext()) {
+            var row = rows.next();
+            var error = validate(row, seenEmails);
+            if (error != null) {
+                errors.add(error);
+                continue;
+            }
+            chunk.add(row);
+            if (chunk.size() == customerImportProperties.chunkSize()) {
+                imported += importChunk(chunk, errors);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            imported += importChunk(chunk, errors);
+        }
+
+        errors.sort(Comparator.comparingInt(CustomerImportErrorDto::row));
+        return new CustomerImportReportDto(imported, errors);
+    }
+
+    private CustomerImportErrorDto validate(CustomerImportRow row, Set<String> seenEmails) {
+        if (row.error() != null) {
+            return new CustomerImportErrorDto(row.row(), null, row.error());
+        }
+        var customer = row.customer();
+        var violations = validator.validate(customer);
+        if (!violations.isEmpty()) {
+            return new CustomerImportErrorDto(row.row(), customer.email(), violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", ")));
+        }
+        if (!seenEmails.add(Customer.normalizeEmail(customer.email()))) {
+            return new CustomerImportErrorDto(row.row(), customer.email(), "Duplicate email in import");
+        }
+        return null;
+    }
+
+    private int importChunk(List<CustomerImportRow> chunk, List<CustomerImportErrorDto> errors) {
+        var customers = new HashMap<CustomerImportRow, Customer>();
+        chunk.forEach(row -> customers.put(row, toCustomer(row)));
+        return shardRouter.groupByShard(chunk, row -> customers.get(row).getCustomerId().id()).entrySet().stream()
+                .mapToInt(shardChunk -> shardRouter.on(shardChunk.getKey(),
+                        () -> importShardChunk(shardChunk.getValue(), customers, errors)))
+                .sum();
+    }
+
+    private int importShardChunk(List<CustomerImportRow> chunk, Map<CustomerImportRow, Customer> prepared,
+                                 List<CustomerImportErrorDto> errors) {
+        var existingEmails = new HashSet<>(customerRepository.findExistingNormalizedEmails(chunk.stream()
+                .map(row -> Customer.normalizeEmail(row.customer().email()))
+                .toList()));
+        var newRows = new ArrayList<CustomerImportRow>(chunk.size());
+        var customers = new ArrayList<Customer>(chunk.size());
+        for (var row : chunk) {
+            var customer = prepared.get(row);
+            if (existingEmails.contains(customer.getNormalizedEmail())) {
+                errors.add(alreadyExists(row));
+            } else {
+                newRows.add(row);
+                customers.add(customer);
+            }
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> customerRepository.persistAll(customers));
+            return customers.size();
+        } catch (DataIntegrityViolationException ex) {
+            return importOneByOne(newRows, errors);
+        }
+    }
+
+    /**
+     * Fallback for a chunk that collided with customers created concurrently after the email check, or that holds
+     * a row the database rejects for another reason.
+     */
+    private int importOneByOne(List<CustomerImportRow> rows, List<CustomerImportErrorDto> errors) {
+        int imported = 0;
+        for (var row : rows) {
+            var customer = toCustomer(row);
+            try {
+                transactionTemplate.executeWithoutResult(status -> customerRepository.persistAndFlush(customer));
+                imported++;
+            } catch (DataIntegrityViolationException ex) {
+                errors.add(isEmailTaken(ex) ? alreadyExists(row) : rejectedByDatabase(row, ex));
+            }
+        }
+        return imported;
+    }
+
+    private static Customer toCustomer(CustomerImportRow row) {
+        var dto = row.customer();
+        return new Customer(dto.firstName(), dto.lastName(), dto.email());
+    }
+
+    private static CustomerImportErrorDto alreadyExists(CustomerImportRow row) {
+        var email = row.customer().email();
+        return new CustomerImportErrorDto(row.row(), email, CustomerAlreadyExistsException.createExceptionMessage(email));
+    }
+
+    private static CustomerImportErrorDto rejectedByDatabase(CustomerImportRow row, DataIntegrityViolationException ex) {
+        log.debug("Import row {} rejected by the database", row.row(), ex);
+        return new CustomerImportErrorDto(row.row(), row.customer().email(), "Invalid customer data");
     }
 }
\ No newline at end of file
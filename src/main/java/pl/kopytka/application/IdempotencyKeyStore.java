@@ -0,0 +1,192 @@
+package pl.kopytka.application;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import pl.kopytka.application.dto.IdempotentResponse;
+import pl.kopytka.application.exception.IdempotencyKeyReusedException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.function.Supplier;
+
+/**
+ * Remembers responses of operations sent with an {@code Idempotency-Key}, so a retried request gets the original
+ * response instead of executing again. Completed responses are kept in the {@code idempotency_keys} table until
+ * they expire and in a bounded in-memory cache in front of it. Before running the operation the key is reserved
+ * with a pending row, so concurrent requests with the same key, on this or another instance, wait for the one
+ * holding it. A pending row expires after {@code kopytka.idempotency.pending-timeout}, so a key held by a crashed
+ * instance is taken over. Failed operations are not remembered, so they can be retried with the same key.
+ */
+@Slf4j
+@Component
+public class IdempotencyKeyStore {
+
+    /**
+     * Serializes requests with sorted properties and amounts without trailing zeros, so equal requests
+     * serialize to the same bytes.
+     */
+    private static final ObjectWriter CANONICAL_JSON = JsonMapper.builder()
+            .enable(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY)
+            .enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+            .addModule(new SimpleModule().addSerializer(new StdSerializer<>(BigDecimal.class) {
+                @Override
+                public void serialize(BigDecimal value, JsonGenerator generator, SerializerProvider provider)
+                        throws IOException {
+                    generator.writeNumber(value.stripTrailingZeros().toPlainString());
+                }
+            }))
+            .build()
+            .writer();
+
+    private final IdempotencyRecordRepository repository;
+    private final IdempotencyProperties properties;
+    private final ReplicaReads replicaReads;
+    private final TransactionTemplate transactionTemplate;
+    private final Cache<String, IdempotencyRecord> cache;
+    private final SingleFlight<String, IdempotentResponse> inFlight = new SingleFlight<>();
+
+    IdempotencyKeyStore(IdempotencyRecordRepository repository, IdempotencyProperties properties,
+                        ReplicaReads replicaReads, TransactionTemplate transactionTemplate, MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.properties = properties;
+        this.replicaReads = replicaReads;
+        this.transactionTemplate = transactionTemplate;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.cacheSize())
+                .expireAfterWrite(properties.timeToLive())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "idempotency-keys");
+    }
+
+    /**
+     * Executes {@code action} unless a response for the key is stored already. A stored response is returned only
+     * for the same {@code request}, compared by the SHA-256 of its canonical JSON.
+     */
+    public IdempotentResponse execute(String operation, String idempotencyKey, Object request, Supplier<String> action) {
+        var id = operation + ":" + idempotencyKey;
+        var requestHash = hash(request);
+        return inFlight.execute(id, () -> {
+            while (true) {
+                var stored = find(id);
+                if (stored == null && reserve(id, requestHash)) {
+                    return new IdempotentResponse(complete(id, requestHash, action), false);
+                }
+                if (stored != null && !stored.getRequestHash().equals(requestHash)) {
+                    throw new IdempotencyKeyReusedException(idempotencyKey);
+                }
+                if (stored != null && !stored.isPending()) {
+                    return new IdempotentResponse(stored.getResponse(), true);
+                }
+                awaitPending(id);
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${kopytka.idempotency.cleanup-interval:PT10M}")
+    void deleteExpired() {
+        int deleted = repository.deleteExpired(Instant.now());
+        if (deleted > 0) {
+            log.debug("Deleted {} expired idempotency keys", deleted);
+        }
+    }
+
+    static String hash(Object request) {
+        try {
+            var json = CANONICAL_JSON.writeValueAsBytes(request);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(json));
+        } catch (JsonProcessingException ex) {
+            throw new UncheckedIOException(ex);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not supported", ex);
+        }
+    }
+
+    /**
+     * Returns the unexpired record of the key, pending or completed. Only completed records are cached.
+     */
+    private IdempotencyRecord find(String id) {
+        var now = Instant.now();
+        var cached = cache.getIfPresent(id);
+        if (cached != null) {
+            return cached.isExpired(now) ? null : cached;
+        }
+        var stored = replicaReads.find(() -> repository.findById(id), record -> !record.isPending())
+                .filter(record -> !record.isExpired(now))
+                .orElse(null);
+        if (stored != null && !stored.isPending()) {
+            cache.put(id, stored);
+        }
+        return stored;
+    }
+
+    /**
+     * Inserts a pending row for the key in its own transaction, replacing an expired one. Returns {@code false}
+     * when another instance holds the key.
+     */
+    private boolean reserve(String id, String requestHash) {
+        var now = Instant.now();
+        var pending = IdempotencyRecord.pending(id, requestHash, now.plus(properties.pendingTimeout()));
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                repository.deleteExpired(id, now);
+                repository.persistAndFlush(pending);
+            });
+            return true;
+        } catch (DataIntegrityViolationException ex) {
+            log.debug("Idempotency key {} is held by another instance", id);
+            return false;
+        }
+    }
+
+    /**
+     * Runs the action holding the key. The response is stored only while the key is still pending: when it expired
+     * and another instance took it over, that instance's response is the one kept.
+     */
+    private String complete(String id, String requestHash, Supplier<String> action) {
+        String response;
+        try {
+            response = action.get();
+        } catch (RuntimeException | Error ex) {
+            repository.deletePending(id);
+            throw ex;
+        }
+        var expireAt = Instant.now().plus(properties.timeToLive());
+        if (repository.complete(id, response, expireAt) == 0) {
+            log.warn("Idempotency key {} was taken over by another instance, its response is not stored", id);
+            return response;
+        }
+        cache.put(id, new IdempotencyRecord(id, requestHash, response, expireAt));
+        return response;
+    }
+
+    private void awaitPending(String id) {
+        try {
+            Thread.sleep(properties.pendingPollInterval());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for idempotency key " + id, ex);
+        }
+    }
+}
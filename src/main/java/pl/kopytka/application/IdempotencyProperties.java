@@ -0,0 +1,14 @@
+package pl.kopytka.application;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties("kopytka.idempotency")
+record IdempotencyProperties(
+        @DefaultValue("24h") Duration timeToLive,
+        @DefaultValue("10000") long cacheSize,
+        @DefaultValue("30s") Duration pendingTimeout,
+        @DefaultValue("50ms") Duration pendingPollInterval) {
+}
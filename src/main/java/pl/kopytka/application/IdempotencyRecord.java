@@ -0,0 +1,57 @@
+package pl.kopytka.application;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.validation.constraints.NotNull;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Entity(name = "idempotency_keys")
+@Table(indexes = @Index(name = "idx_idempotency_keys_expire_at", columnList = "expireAt"))
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Getter
+class IdempotencyRecord {
+
+    @Id
+    private String id;
+
+    /**
+     * Hex encoded SHA-256 of the request body, telling a retry from a different request reusing the key.
+     */
+    @NotNull
+    @Column(length = 64)
+    private String requestHash;
+
+    /**
+     * {@code null} while the operation holding the key is still running.
+     */
+    private String response;
+
+    @NotNull
+    private Instant expireAt;
+
+    IdempotencyRecord(String id, String requestHash, String response, Instant expireAt) {
+        this.id = id;
+        this.requestHash = requestHash;
+        this.response = response;
+        this.expireAt = expireAt;
+    }
+
+    static IdempotencyRecord pending(String id, String requestHash, Instant expireAt) {
+        return new IdempotencyRecord(id, requestHash, null, expireAt);
+    }
+
+    boolean isPending() {
+        return response == null;
+    }
+
+    boolean isExpired(Instant now) {
+        return !expireAt.isAfter(now);
+    }
+}
@@ -0,0 +1,34 @@
+package pl.kopytka.application;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String>,
+        PersistingRepository<IdempotencyRecord> {
+
+    @Transactional
+    @Modifying
+    @Query("delete from idempotency_keys k where k.expireAt <= :now")
+    int deleteExpired(Instant now);
+
+    @Transactional
+    @Modifying
+    @Query("delete from idempotency_keys k where k.id = :id and k.expireAt <= :now")
+    int deleteExpired(String id, Instant now);
+
+    @Transactional
+    @Modifying
+    @Query("""
+            update idempotency_keys k set k.response = :response, k.expireAt = :expireAt
+            where k.id = :id and k.response is null""")
+    int complete(String id, String response, Instant expireAt);
+
+    @Transactional
+    @Modifying
+    @Query("delete from idempotency_keys k where k.id = :id and k.response is null")
+    int deletePending(String id);
+}
@@ -0,0 +1,34 @@
+package pl.kopytka.application;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+@Component
+@ConditionalOnProperty(name = "kopytka.outbox.sink", havingValue = "memory", matchIfMissing = true)
+class InMemoryOutboxEventSink implements OutboxEventSink {
+
+    private final Deque<OutboxMessage> messages = new ArrayDeque<>();
+    private final int capacity;
+
+    InMemoryOutboxEventSink(OutboxProperties properties) {
+        this.capacity = properties.memoryCapacity();
+    }
+
+    @Override
+    public synchronized void publish(List<OutboxMessage> published) {
+        for (var message : published) {
+            if (messages.size() == capacity) {
+                messages.removeFirst();
+            }
+            messages.addLast(message);
+        }
+    }
+
+    synchronized List<OutboxMessage> messages() {
+        return List.copyOf(messages);
+    }
+}
@@ -0,0 +1,48 @@
+package pl.kopytka.application;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Re-runs a transactional action after an optimistic-lock conflict, with exponential backoff and full jitter so
+ * that competing writers do not retry in lockstep. The action must start a new transaction on every call.
+ */
+@Slf4j
+@Component
+class OptimisticLockRetry {
+
+    private final OptimisticLockRetryProperties properties;
+
+    OptimisticLockRetry(OptimisticLockRetryProperties properties) {
+        this.properties = properties;
+    }
+
+    <T> T execute(Supplier<T> action) {
+        long backoffMillis = properties.initialBackoff().toMillis();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return action.get();
+            } catch (OptimisticLockingFailureException ex) {
+                if (attempt >= properties.maxAttempts()) {
+                    throw ex;
+                }
+                log.debug("Optimistic lock conflict on attempt {}, retrying", attempt, ex);
+                sleep(ThreadLocalRandom.current().nextLong(backoffMillis + 1));
+                backoffMillis = Math.min(backoffMillis * 2, properties.maxBackoff().toMillis());
+            }
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting to retry", ex);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package pl.kopytka.application;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties("kopytka.optimistic-lock-retry")
+record OptimisticLockRetryProperties(
+        @DefaultValue("5") int maxAttempts,
+        @DefaultValue("10ms") Duration initialBackoff,
+        @DefaultValue("200ms") Duration maxBackoff) {
+}
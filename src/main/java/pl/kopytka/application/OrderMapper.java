@@ -31,9 +31,9 @@ public interface OrderMapper {
     OrderAddress toOrderAddress(CreateOrderAddressDto addressDto);
 
     @Mapping(target = "productId", source = "productId.productId")
-    @Mapping(target = "price", source = "price.amount")
+    @Mapping(target = "price", source = "price", qualifiedByName = "moneyToBigDecimal")
     @Mapping(target = "quantity", source = "quantity.value")
-    @Mapping(target = "totalPrice", source = "totalPrice.amount")
+    @Mapping(target = "totalPrice", source = "totalPrice", qualifiedByName = "moneyToBigDecimal")
     OrderItemDto toOrderItemDto(OrderItem item);
 
     List<OrderItemDto> toOrderItemDtos(List<OrderItem> items);
@@ -50,6 +50,11 @@ public interface OrderMapper {
         return new Money(amount);
     }
 
+    @Named("moneyToBigDecimal")
+    default BigDecimal moneyToBigDecimal(Money money) {
+        return money.amount();
+    }
+
     @Named("integerToQuantity")
     default Quantity integerToQuantity(Integer value) {
         return new Quantity(value);
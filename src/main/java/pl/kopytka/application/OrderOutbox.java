@@ -0,0 +1,77 @@
+package pl.kopytka.application;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import pl.kopytka.application.dto.OrderCreatedEvent;
+import pl.kopytka.application.dto.OrderPaidEvent;
+import pl.kopytka.application.dto.PaidOrderRow;
+import pl.kopytka.domain.Order;
+
+import java.util.List;
+
+/**
+ * Records order lifecycle events in the outbox table. Must join the transaction that changes the order,
+ * so the event is stored if and only if the change is committed.
+ */
+@Component
+@RequiredArgsConstructor
+class OrderOutbox {
+
+    static final String ORDER_CREATED = "OrderCreated";
+    static final String ORDER_PAID = "OrderPaid";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void orderCreated(Order order) {
+        outboxEventRepository.persist(toOrderCreatedEvent(order));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void ordersCreated(List<Order> orders) {
+        outboxEventRepository.persistAll(orders.stream()
+                .map(this::toOrderCreatedEvent)
+                .toList());
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void orderPaid(PaidOrderRow order) {
+        outboxEventRepository.persist(toOrderPaidEvent(
+                new OrderPaidEvent(order.id(), order.customerId(), order.price().amount(), order.paidAt())));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void ordersPaid(List<Order> orders) {
+        outboxEventRepository.persistAll(orders.stream()
+                .map(this::toOrderPaidEvent)
+                .toList());
+    }
+
+    private OutboxEvent toOrderCreatedEvent(Order order) {
+        var event = new OrderCreatedEvent(order.getId().id(), order.getCustomer().getCustomerId().id(),
+                order.getPrice().amount(), order.getCreateAt());
+        return new OutboxEvent(order.getId().id(), ORDER_CREATED, toJson(event));
+    }
+
+    private OutboxEvent toOrderPaidEvent(Order order) {
+        return toOrderPaidEvent(new OrderPaidEvent(order.getId().id(), order.getCustomer().getCustomerId().id(),
+                order.getPrice().amount(), order.getLastUpdateAt()));
+    }
+
+    private OutboxEvent toOrderPaidEvent(OrderPaidEvent event) {
+        return new OutboxEvent(event.orderId(), ORDER_PAID, toJson(event));
+    }
+
+    private String toJson(Object event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize " + event.getClass().getSimpleName(), ex);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package pl.kopytka.application;
+
+import pl.kopytka.application.dto.OrderSummaryDto;
+import pl.kopytka.application.exception.InvalidPageCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+record OrderPageCursor(Instant createAt, UUID orderId) {
+
+    private static final String SEPARATOR = "|";
+
+    static OrderPageCursor after(OrderSummaryDto lastOrder) {
+        return new OrderPageCursor(lastOrder.createAt(), lastOrder.id());
+    }
+
+    static OrderPageCursor decode(String cursor) {
+        try {
+            var decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separatorIndex = decoded.indexOf(SEPARATOR);
+            return new OrderPageCursor(Instant.parse(decoded.substring(0, separatorIndex)),
+                    UUID.fromString(decoded.substring(separatorIndex + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException ex) {
+            throw new InvalidPageCursorException(cursor);
+        }
+    }
+
+    String encode() {
+        var raw = createAt + SEPARATOR + orderId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,9 @@
+package pl.kopytka.application;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties("kopytka.payments")
+record OrderPaymentProperties(
+        @DefaultValue("500") int chunkSize) {
+}
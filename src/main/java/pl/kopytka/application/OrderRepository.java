@@ -1,9 +1,136 @@
 package pl.kopytka.application;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import pl.kopytka.application.dto.OrderDetailsRow;
+import pl.kopytka.application.dto.OrderSummaryDto;
+import pl.kopytka.application.dto.PaidOrderRow;
+import pl.kopytka.domain.CustomerId;
 import pl.kopytka.domain.Order;
 import pl.kopytka.domain.OrderId;
+import pl.kopytka.domain.OrderStatus;
 
-public interface OrderRepository extends JpaRepository<Order, OrderId> {
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
 
+public interface OrderRepository extends JpaRepository<Order, OrderId>, PersistingRepository<Order> {
+
+    Instant EXPORT_START = Instant.EPOCH;
+    Instant EXPORT_END = Instant.parse("9999-12-31T00:00:00Z");
+
+    @Query("""
+            select new pl.kopytka.application.dto.OrderDetailsRow(
+                o.id.orderId, o.customer.customerId.customerId, o.price, o.status, o.version,
+                a.street, a.postCode, a.city, a.houseNo,
+                i.productId.productId, i.quantity.value, i.price, i.totalPrice)
+            from orders o
+            left join o.address a
+            left join o.items i
+            where o.id = :orderId
+            order by i.id""")
+    List<OrderDetailsRow> findOrderDetailsById(OrderId orderId);
+
+    @Query("select o.version from orders o where o.id = :orderId")
+    Optional<Integer> findVersionById(OrderId orderId);
+
+    /**
+     * Pays the order in one statement, without loading it, like {@link Order#pay(Instant)}. Returns 0 if the order
+     * does not exist or is not in {@link Order#PAYABLE_STATUS}.
+     */
+    default int pay(OrderId orderId, Instant paidAt) {
+        return updateStatus(orderId, Order.PAYABLE_STATUS, Order.PAID_STATUS, paidAt);
+    }
+
+    @Modifying
+    @Query("""
+            update orders o
+            set o.status = :newStatus, o.lastUpdateAt = :updatedAt, o.version = o.version + 1
+            where o.id = :orderId and o.status = :expectedStatus""")
+    int updateStatus(OrderId orderId, OrderStatus expectedStatus, OrderStatus newStatus, Instant updatedAt);
+
+    @Query("""
+            select new pl.kopytka.application.dto.PaidOrderRow(
+                o.id.orderId, o.customer.customerId.customerId, o.price, o.lastUpdateAt, o.version)
+            from orders o
+            where o.id = :orderId""")
+    Optional<PaidOrderRow> findPaidOrderRow(OrderId orderId);
+
+    /**
+     * Streams orders created in {@code [from, to)}, ignoring null filters. Missing bounds are replaced with
+     * {@link #EXPORT_START} and {@link #EXPORT_END} rather than {@code :from is null or ...} predicates, so the
+     * creation time is always a range scan of {@code idx_orders_create_at_id}.
+     */
+    default Stream<OrderDetailsRow> streamOrderDetails(Instant from, Instant to, OrderStatus status) {
+        var start = from == null ? EXPORT_START : from;
+        var end = to == null ? EXPORT_END : to;
+        return status == null
+                ? streamOrderDetailsCreatedBetween(start, end)
+                : streamOrderDetailsCreatedBetween(start, end, status);
+    }
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("""
+            select new pl.kopytka.application.dto.OrderDetailsRow(
+                o.id.orderId, o.customer.customerId.customerId, o.price, o.status, o.version,
+                a.street, a.postCode, a.city, a.houseNo,
+                i.productId.productId, i.quantity.value, i.price, i.totalPrice)
+            from orders o
+            left join o.address a
+            left join o.items i
+            where o.createAt >= :from and o.createAt < :to
+            order by o.createAt, o.id.orderId, i.id""")
+    Stream<OrderDetailsRow> streamOrderDetailsCreatedBetween(Instant from, Instant to);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("""
+            select new pl.kopytka.application.dto.OrderDetailsRow(
+                o.id.orderId, o.customer.customerId.customerId, o.price, o.status, o.version,
+                a.street, a.postCode, a.city, a.houseNo,
+                i.productId.productId, i.quantity.value, i.price, i.totalPrice)
+            from orders o
+            left join o.address a
+            left join o.items i
+            where o.createAt >= :from and o.createAt < :to
+              and o.status = :status
+            order by o.createAt, o.id.orderId, i.id""")
+    Stream<OrderDetailsRow> streamOrderDetailsCreatedBetween(Instant from, Instant to, OrderStatus status);
+
+    /**
+     * Loads orders with their customers only; the address and items are not needed to pay them.
+     */
+    @Query("""
+            select o
+            from orders o
+            join fetch o.customer
+            where o.id in :orderIds""")
+    List<Order> findAllByIdIn(Collection<OrderId> orderIds);
+
+    @Query("""
+            select new pl.kopytka.application.dto.OrderSummaryDto(o.id.orderId, o.status, o.price, o.createAt)
+            from orders o
+            where o.customer.customerId = :customerId
+            order by o.createAt desc, o.id.orderId desc""")
+    List<OrderSummaryDto> findOrderSummaries(CustomerId customerId, Limit limit);
+
+    @Query("""
+            select new pl.kopytka.application.dto.OrderSummaryDto(o.id.orderId, o.status, o.price, o.createAt)
+            from orders o
+            where o.customer.customerId = :customerId
+              and o.createAt <= :createAt
+              and (o.createAt < :createAt or o.id.orderId < :orderId)
+            order by o.createAt desc, o.id.orderId desc""")
+    List<OrderSummaryDto> findOrderSummariesBefore(CustomerId customerId, Instant createAt, UUID orderId, Limit limit);
 }
@@ -1,15 +1,48 @@
 package pl.kopytka.application;
 
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import pl.kopytka.application.dto.CreateOrderDto;
+import pl.kopytka.application.dto.CreateOrderResultDto;
+import pl.kopytka.application.dto.OrderAddressDto;
+import pl.kopytka.application.dto.OrderDetailsRow;
 import pl.kopytka.application.dto.OrderDto;
+import pl.kopytka.application.dto.OrderItemDto;
+import pl.kopytka.application.dto.OrderStatusChangedEvent;
+import pl.kopytka.application.dto.OrderSummaryDto;
+import pl.kopytka.application.dto.OrderSummaryPageDto;
+import pl.kopytka.application.dto.PaymentResultDto;
+import pl.kopytka.application.dto.PaymentResultDto.PaymentStatus;
+import pl.kopytka.application.dto.VersionedDto;
 import pl.kopytka.application.exception.CustomerNotFoundException;
+import pl.kopytka.application.exception.InvalidOrderIdListException;
 import pl.kopytka.application.exception.OrderNotFoundException;
+import pl.kopytka.application.exception.OrderPaymentsInterruptedException;
 import pl.kopytka.domain.*;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static pl.kopytka.application.ServiceStage.*;
 
 @Service
 @RequiredArgsConstructor
@@ -17,36 +50,410 @@ public class OrderService {
 
     private final OrderRepository orderRepository;
     private final CustomerRepository customerRepository;
+    private final CustomerCache customerCache;
+    private final OrderSubmissionRegistry orderSubmissionRegistry;
+    private final OrderOutbox orderOutbox;
+    private final CustomerOrderStatsProjection customerOrderStats;
+    private final ServiceStageTimers stageTimers;
+    private final OptimisticLockRetry optimisticLockRetry;
+    private final TransactionTemplate transactionTemplate;
+    private final OrderPaymentProperties orderPaymentProperties;
+    private final SingleFlight<OrderId, Integer> payments = new SingleFlight<>();
     private final OrderMapper orderMapper;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ShardRouter shardRouter;
+    private final ReplicaReads replicaReads;
 
+    /**
+     * Writes the order to the shard holding its customer.
+     */
     public OrderId createOrder(CreateOrderDto createOrderDto) {
-        var customer = findCustomerById(createOrderDto.customerId());
-        var items = orderMapper.toOrderItems(createOrderDto.basketItems());
-        var orderAddress = orderMapper.toOrderAddress(createOrderDto.address());
+        var customerId = createOrderDto.customerId();
+        var shard = stageTimers.record(CREATE_ORDER_CUSTOMER, () -> findCustomerShard(customerId))
+                .orElseThrow(() -> new CustomerNotFoundException(customerId));
+        return shardRouter.on(shard, () -> transactionTemplate.execute(status -> createOrderInTransaction(createOrderDto)));
+    }
 
-        var order = new Order(customer, new Money(createOrderDto.price()),
-                items, orderAddress);
+    private OrderId createOrderInTransaction(CreateOrderDto createOrderDto) {
+        var customer = customerRepository.getReferenceById(new CustomerId(createOrderDto.customerId()));
+        var items = stageTimers.record(CREATE_ORDER_MAPPING, () -> orderMapper.toOrderItems(createOrderDto.basketItems()));
+        var orderAddress = stageTimers.record(CREATE_ORDER_MAPPING, () -> orderMapper.toOrderAddress(createOrderDto.address()));
+        var order = stageTimers.record(CREATE_ORDER_DOMAIN,
+                () -> new Order(OrderId.newOne(customer.getCustomerId()), customer, new Money(createOrderDto.price()), items, orderAddress));
+
+        stageTimers.record(CREATE_ORDER_PERSIST, () -> orderRepository.persist(order));
+        stageTimers.recordCommit(CREATE_ORDER_COMMIT);
+        stageTimers.record(CREATE_ORDER_OUTBOX, () -> orderOutbox.orderCreated(order));
+        customerOrderStats.orderCreated(order);
+        return order.getId();
+    }
+
+    public List<CreateOrderResultDto> createOrders(List<CreateOrderDto> createOrderDtos) {
+        return createSubmittedOrders(createOrderDtos.stream()
+                .map(OrderSubmission::of)
+                .toList());
+    }
 
-        return orderRepository.save(order).getId();
+    /**
+     * Creates the submissions in one transaction per shard holding their customers. Submissions of unknown
+     * customers go to the home shard of the customer id, where they fail.
+     */
+    public List<CreateOrderResultDto> createSubmittedOrders(List<OrderSubmission> submissions) {
+        var results = new ArrayList<CreateOrderResultDto>(submissions.size());
+        var customerShards = findCustomerShards(submissions);
+        IntStream.range(0, submissions.size()).boxed()
+                .collect(Collectors.groupingBy(index -> customerShardOf(customerShards, submissions.get(index)),
+                        LinkedHashMap::new, Collectors.toList()))
+                .forEach((shard, shardIndexes) -> results.addAll(shardRouter.on(shard,
+                        () -> transactionTemplate.execute(status -> createSubmittedOrdersInTransaction(submissions, shardIndexes)))));
+        results.sort(Comparator.comparingInt(CreateOrderResultDto::index));
+        return results;
     }
 
+    /**
+     * Groups the submissions by the shard {@link #createSubmittedOrders(List)} writes them on, so each group can be
+     * created by {@link #createSubmittedOrders(int, List)} in a single transaction.
+     */
+    public Map<Integer, List<OrderSubmission>> groupByCustomerShard(List<OrderSubmission> submissions) {
+        var customerShards = findCustomerShards(submissions);
+        return submissions.stream()
+                .collect(Collectors.groupingBy(submission -> customerShardOf(customerShards, submission),
+                        LinkedHashMap::new, Collectors.toList()));
+    }
+
+    /**
+     * Creates the submissions in one transaction on {@code shard}: either all created orders are committed or none.
+     */
+    public List<CreateOrderResultDto> createSubmittedOrders(int shard, List<OrderSubmission> submissions) {
+        var indexes = IntStream.range(0, submissions.size()).boxed().toList();
+        return shardRouter.on(shard,
+                () -> transactionTemplate.execute(status -> createSubmittedOrdersInTransaction(submissions, indexes)));
+    }
+
+    private List<CreateOrderResultDto> createSubmittedOrdersInTransaction(List<OrderSubmission> submissions,
+                                                                          List<Integer> indexes) {
+        var customers = findCustomersByIds(indexes.stream().map(submissions::get).toList());
+        var results = new ArrayList<CreateOrderResultDto>(indexes.size());
+        var orders = new ArrayList<Order>(indexes.size());
+
+        for (int index : indexes) {
+            var submission = submissions.get(index);
+            var createOrderDto = submission.order();
+            try {
+                validate(createOrderDto);
+                var customer = customers.get(createOrderDto.customerId());
+                if (customer == null) {
+                    throw new CustomerNotFoundException(createOrderDto.customerId());
+                }
+                var order = toOrder(submission.orderId(), customer, createOrderDto);
+                orders.add(order);
+                results.add(CreateOrderResultDto.created(index, order.getId().id()));
+            } catch (ConstraintViolationException | CustomerNotFoundException | OrderDomainException |
+                     IllegalArgumentException ex) {
+                results.add(CreateOrderResultDto.failed(index, ex.getMessage()));
+            }
+        }
+
+        orderRepository.persistAll(orders);
+        orderOutbox.ordersCreated(orders);
+        customerOrderStats.ordersCreated(orders);
+        orders.forEach(this::publishStatusChanged);
+        return results;
+    }
+
+    /**
+     * Returns the version of the paid order, which reads can require to see their own payment.
+     */
     //TODO
     //Powinno się wykonać po udanej płatności
-    @Transactional
-    public void pay(OrderId orderId) {
-        var order = orderRepository.findById(orderId).orElseThrow(() -> new OrderNotFoundException(orderId));
-        order.pay();
+    public int pay(OrderId orderId) {
+        return payments.execute(orderId, () -> {
+            int home = shardRouter.shardOf(orderId.id());
+            try {
+                return payOnShard(home, orderId);
+            } catch (OrderNotFoundException ex) {
+                int shard = findShardOf(orderId).filter(found -> found != home).orElseThrow(() -> ex);
+                return payOnShard(shard, orderId);
+            }
+        });
+    }
+
+    /**
+     * Pays orders read lazily from {@code orderIds}, one transaction per chunk: each chunk is loaded with a single
+     * {@code IN} query and flushed once. Chunks committed before a failure stay paid. If {@code orderIds} turn out
+     * to be invalid, the ids read before are still paid and reported in {@link OrderPaymentsInterruptedException}.
+     */
+    public List<PaymentResultDto> payOrders(Iterator<OrderId> orderIds) {
+        var results = new ArrayList<PaymentResultDto>();
+        var chunk = new ArrayList<OrderId>(orderPaymentProperties.chunkSize());
+        try {
+            while (orderIds.hasNext()) {
+                chunk.add(orderIds.next());
+                if (chunk.size() == orderPaymentProperties.chunkSize()) {
+                    results.addAll(payChunkByShard(chunk));
+                    chunk.clear();
+                }
+            }
+        } catch (InvalidOrderIdListException ex) {
+            if (!chunk.isEmpty()) {
+                results.addAll(payChunkByShard(chunk));
+            }
+            throw new OrderPaymentsInterruptedException(results, ex);
+        }
+        if (!chunk.isEmpty()) {
+            results.addAll(payChunkByShard(chunk));
+        }
+        return results;
     }
 
-    @Transactional(readOnly = true)
     public OrderDto getOrderById(OrderId orderId) {
-        var order = orderRepository.findById(orderId).orElseThrow(() -> new OrderNotFoundException(orderId));
-        return new OrderDto(orderId.id(), order.getCustomer().getCustomerId().id(), order.getPrice().amount(), order.getStatus(),
-                orderMapper.toOrderItemDtos(order.getItems()), orderMapper.toOrderAddressDto(order.getAddress()));
+        return getVersionedOrderById(orderId).dto();
     }
 
-    private Customer findCustomerById(UUID customerId) {
-        return customerRepository.findById(new CustomerId(customerId))
-                .orElseThrow(() -> new CustomerNotFoundException(customerId));
+    public VersionedDto<OrderDto> getVersionedOrderById(OrderId orderId) {
+        return getVersionedOrderById(orderId, null);
+    }
+
+    /**
+     * Served by a replica unless it lacks the order or holds a version older than {@code minVersion}, e.g. one
+     * returned by {@link #pay(OrderId)}; the primary answers then.
+     */
+    public VersionedDto<OrderDto> getVersionedOrderById(OrderId orderId, Integer minVersion) {
+        var submittedOrder = stageTimers.record(GET_ORDER_SUBMITTED, () -> orderSubmissionRegistry.findSubmitted(orderId));
+        if (submittedOrder.isPresent()) {
+            return new VersionedDto<>(submittedOrder.get(), null);
+        }
+        var found = stageTimers.record(GET_ORDER_QUERY, () -> shardRouter.find(orderId.id(),
+                () -> replicaReads.find(() -> Optional.of(orderRepository.findOrderDetailsById(orderId)).filter(rows -> !rows.isEmpty()),
+                        rows -> minVersion == null || rows.getFirst().version() >= minVersion)));
+        if (found.isEmpty()) {
+            return orderSubmissionRegistry.findRejected(orderId)
+                    .map(order -> new VersionedDto<>(order, null))
+                    .orElseThrow(() -> new OrderNotFoundException(orderId));
+        }
+        var rows = found.get();
+        return new VersionedDto<>(stageTimers.record(GET_ORDER_MAPPING, () -> toOrderDto(rows)), rows.getFirst().version());
+    }
+
+    public Optional<Integer> findOrderVersion(OrderId orderId) {
+        return findOrderVersion(orderId, null);
+    }
+
+    /**
+     * Version of a persisted order, read without loading the order. Like {@link #getVersionedOrderById(OrderId, Integer)}
+     * it is served by a replica unless the replica lacks the order or holds a version older than {@code minVersion}.
+     */
+    public Optional<Integer> findOrderVersion(OrderId orderId, Integer minVersion) {
+        return shardRouter.find(orderId.id(), () -> replicaReads.find(() -> orderRepository.findVersionById(orderId),
+                version -> minVersion == null || version >= minVersion));
+    }
+
+    /**
+     * Passes orders created in {@code [from, to)} to {@code consumer} one at a time, oldest first. Rows are read
+     * through a forward-only cursor as DTO projections, so nothing accumulates in the persistence context and
+     * memory use does not depend on the number of exported orders. Null filters are ignored. With several shards
+     * the shards are exported one after another, so orders are oldest first within a shard only.
+     */
+    public long exportOrders(Instant from, Instant to, OrderStatus status, Consumer<OrderDto> consumer) {
+        var readOnlyTransaction = new TransactionTemplate(Objects.requireNonNull(transactionTemplate.getTransactionManager()));
+        readOnlyTransaction.setReadOnly(true);
+        return shardRouter.onEachShard(() -> readOnlyTransaction.execute(tx -> exportShardOrders(from, to, status, consumer))).stream()
+                .mapToLong(Long::longValue)
+                .sum();
+    }
+
+    private long exportShardOrders(Instant from, Instant to, OrderStatus status, Consumer<OrderDto> consumer) {
+        long exported = 0;
+        var orderRows = new ArrayList<OrderDetailsRow>();
+        try (var rows = orderRepository.streamOrderDetails(from, to, status)) {
+            for (var iterator = rows.iterator(); iterator.hasNext(); ) {
+                var row = iterator.next();
+                if (!orderRows.isEmpty() && !orderRows.getFirst().id().equals(row.id())) {
+                    consumer.accept(toOrderDto(orderRows));
+                    exported++;
+                    orderRows.clear();
+                }
+                orderRows.add(row);
+            }
+        }
+        if (!orderRows.isEmpty()) {
+            consumer.accept(toOrderDto(orderRows));
+            exported++;
+        }
+        return exported;
+    }
+
+    public OrderSummaryPageDto getCustomerOrders(CustomerId customerId, String cursor, int size) {
+        return shardRouter.onShardOf(customerId.id(), () -> getShardCustomerOrders(customerId, cursor, size));
+    }
+
+    private OrderSummaryPageDto getShardCustomerOrders(CustomerId customerId, String cursor, int size) {
+        var limit = Limit.of(size + 1);
+        var orders = cursor == null
+                ? orderRepository.findOrderSummaries(customerId, limit)
+                : findOrderSummariesAfter(customerId, OrderPageCursor.decode(cursor), limit);
+
+        if (orders.size() <= size) {
+            return new OrderSummaryPageDto(orders, null);
+        }
+        var page = orders.subList(0, size);
+        return new OrderSummaryPageDto(page, OrderPageCursor.after(page.getLast()).encode());
+    }
+
+    private List<OrderSummaryDto> findOrderSummariesAfter(CustomerId customerId, OrderPageCursor cursor, Limit limit) {
+        return orderRepository.findOrderSummariesBefore(customerId, cursor.createAt(), cursor.orderId(), limit);
+    }
+
+    private Order toOrder(OrderId orderId, Customer customer, CreateOrderDto createOrderDto) {
+        var items = orderMapper.toOrderItems(createOrderDto.basketItems());
+        var orderAddress = orderMapper.toOrderAddress(createOrderDto.address());
+
+        return new Order(orderId, customer, new Money(createOrderDto.price()),
+                items, orderAddress);
+    }
+
+    /**
+     * Pays with a conditional update instead of loading the aggregate; {@link Order#pay(Instant)}, used by bulk
+     * payments, and the update share {@link Order#PAYABLE_STATUS} and {@link Order#PAID_STATUS}. The paid row is
+     * read back for the outbox and the projection.
+     */
+    private int payInTransaction(OrderId orderId) {
+        int updated = stageTimers.record(PAY_UPDATE, () -> orderRepository.pay(orderId, Instant.now()));
+        if (updated == 0) {
+            throw orderRepository.findVersionById(orderId).isPresent()
+                    ? new OrderDomainException(Order.NOT_PAYABLE_MESSAGE)
+                    : new OrderNotFoundException(orderId);
+        }
+        var order = stageTimers.record(PAY_LOAD, () -> orderRepository.findPaidOrderRow(orderId)).orElseThrow();
+        stageTimers.record(PAY_OUTBOX, () -> orderOutbox.orderPaid(order));
+        customerOrderStats.orderPaid(order);
+        eventPublisher.publishEvent(new OrderStatusChangedEvent(order.id(), OrderStatus.PAID));
+        return order.version();
+    }
+
+    /**
+     * Not retried on optimistic-lock conflicts: the conditional update never compares versions, concurrent payers
+     * wait for the row lock and the losers see the order already paid.
+     */
+    private int payOnShard(int shard, OrderId orderId) {
+        return shardRouter.on(shard, () -> transactionTemplate.execute(status -> payInTransaction(orderId)));
+    }
+
+    private Optional<Integer> findShardOf(OrderId orderId) {
+        return shardRouter.find(orderId.id(),
+                () -> replicaReads.find(() -> orderRepository.findVersionById(orderId)).map(version -> ShardContext.current()));
+    }
+
+    private List<PaymentResultDto> payChunkByShard(List<OrderId> chunk) {
+        var results = new ArrayList<PaymentResultDto>(chunk.size());
+        shardRouter.groupByShard(chunk, OrderId::id)
+                .forEach((shard, shardChunk) -> results.addAll(shardRouter.on(shard, () -> payChunk(shardChunk))));
+        return results;
+    }
+
+    private List<PaymentResultDto> payChunk(List<OrderId> chunk) {
+        return optimisticLockRetry.execute(() -> transactionTemplate.execute(status -> payChunkInTransaction(chunk)));
+    }
+
+    private List<PaymentResultDto> payChunkInTransaction(List<OrderId> chunk) {
+        var orders = orderRepository.findAllByIdIn(chunk).stream()
+                .collect(Collectors.toMap(Order::getId, Function.identity()));
+        var results = new ArrayList<PaymentResultDto>(chunk.size());
+        var paid = new ArrayList<Order>();
+        var paidAt = Instant.now();
+
+        for (var orderId : chunk) {
+            var order = orders.get(orderId);
+            if (order == null) {
+                results.add(new PaymentResultDto(orderId.id(), PaymentStatus.NOT_FOUND));
+            } else if (order.isPaidStatus()) {
+                results.add(new PaymentResultDto(orderId.id(), PaymentStatus.ALREADY_PAID));
+            } else {
+                order.pay(paidAt);
+                paid.add(order);
+                results.add(new PaymentResultDto(orderId.id(), PaymentStatus.PAID));
+            }
+        }
+
+        orderRepository.flush();
+        orderOutbox.ordersPaid(paid);
+        customerOrderStats.ordersPaid(paid);
+        paid.forEach(this::publishStatusChanged);
+        return results;
+    }
+
+    private void publishStatusChanged(Order order) {
+        eventPublisher.publishEvent(new OrderStatusChangedEvent(order.getId().id(), order.getStatus()));
+    }
+
+    private OrderDto toOrderDto(List<OrderDetailsRow> rows) {
+        var order = rows.getFirst();
+        var items = rows.stream()
+                .filter(row -> row.productId() != null)
+                .map(row -> new OrderItemDto(row.productId(), row.quantity(), row.itemPrice().amount(), row.itemTotalPrice().amount()))
+                .toList();
+        var address = order.city() == null ? null
+                : new OrderAddressDto(order.street(), order.postCode(), order.city(), order.houseNo());
+
+        return new OrderDto(order.id(), order.customerId(), order.price().amount(), order.status(), items, address);
+    }
+
+    private void validate(CreateOrderDto createOrderDto) {
+        var violations = validator.validate(createOrderDto);
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
+    }
+
+    private Optional<Integer> findCustomerShard(UUID customerId) {
+        if (customerId == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(findCustomerShards(Set.of(customerId)).get(customerId));
+    }
+
+    /**
+     * Finds the shards holding the customers, which are not their home shards for customers written before their
+     * bucket was moved. Cached customers are not looked up; the rest are checked on the primaries, with one query
+     * per shard. Unknown customers are left out.
+     */
+    private Map<UUID, Integer> findCustomerShards(Set<UUID> customerIds) {
+        var shards = new HashMap<UUID, Integer>();
+        var uncached = new ArrayList<UUID>();
+        for (var customerId : customerIds) {
+            customerCache.shardOf(new CustomerId(customerId))
+                    .ifPresentOrElse(shard -> shards.put(customerId, shard), () -> uncached.add(customerId));
+        }
+        if (!uncached.isEmpty()) {
+            shards.putAll(shardRouter.locate(uncached, ids -> transactionTemplate.execute(status ->
+                    customerRepository.findExistingIds(ids.stream().map(CustomerId::new).toList()))));
+        }
+        return shards;
+    }
+
+    private Map<UUID, Integer> findCustomerShards(List<OrderSubmission> submissions) {
+        return findCustomerShards(submissions.stream()
+                .map(OrderSubmission::customerIdOf)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet()));
+    }
+
+    private int customerShardOf(Map<UUID, Integer> customerShards, OrderSubmission submission) {
+        var customerId = OrderSubmission.customerIdOf(submission);
+        return customerShards.getOrDefault(customerId, shardRouter.shardOf(customerId));
+    }
+
+    private Map<UUID, Customer> findCustomersByIds(List<OrderSubmission> submissions) {
+        var customerIds = submissions.stream()
+                .map(OrderSubmission::order)
+                .filter(Objects::nonNull)
+                .map(CreateOrderDto::customerId)
+                .filter(Objects::nonNull)
+                .map(CustomerId::new)
+                .collect(Collectors.toSet());
+
+        return customerRepository.findAllById(customerIds).stream()
+                .collect(Collectors.toMap(customer -> customer.getCustomerId().id(), Function.identity()));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,24 @@
+package pl.kopytka.application;
+
+import pl.kopytka.application.dto.CreateOrderDto;
+import pl.kopytka.domain.CustomerId;
+import pl.kopytka.domain.OrderId;
+
+import java.util.UUID;
+
+public record OrderSubmission(OrderId orderId, CreateOrderDto order) {
+
+    static OrderSubmission of(CreateOrderDto createOrderDto) {
+        var customerId = customerIdOf(createOrderDto);
+        var orderId = customerId == null ? OrderId.newOne() : OrderId.newOne(new CustomerId(customerId));
+        return new OrderSubmission(orderId, createOrderDto);
+    }
+
+    static UUID customerIdOf(OrderSubmission submission) {
+        return customerIdOf(submission.order());
+    }
+
+    private static UUID customerIdOf(CreateOrderDto createOrderDto) {
+        return createOrderDto == null ? null : createOrderDto.customerId();
+    }
+}
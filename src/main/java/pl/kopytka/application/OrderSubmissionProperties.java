@@ -0,0 +1,16 @@
+package pl.kopytka.application;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties("kopytka.order-submission")
+record OrderSubmissionProperties(
+        @DefaultValue("10000") int queueCapacity,
+        @DefaultValue("2") int workers,
+        @DefaultValue("100") int batchSize,
+        @DefaultValue("200ms") Duration pollTimeout,
+        @DefaultValue("30s") Duration shutdownTimeout,
+        @DefaultValue("1h") Duration rejectedRetention) {
+}
@@ -0,0 +1,163 @@
+package pl.kopytka.application;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import pl.kopytka.application.dto.CreateOrderDto;
+import pl.kopytka.application.dto.CreateOrderResultDto;
+import pl.kopytka.application.exception.OrderQueueFullException;
+import pl.kopytka.domain.OrderId;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded in-memory queue for orders submitted with {@code Prefer: respond-async}. Workers persist queued
+ * orders in micro-batches. The queue stops after the web server, so requests accepted during graceful shutdown
+ * are still drained.
+ */
+@Slf4j
+@Component
+public class OrderSubmissionQueue implements SmartLifecycle {
+
+    private final OrderService orderService;
+    private final OrderSubmissionRegistry registry;
+    private final OrderSubmissionProperties properties;
+    private final Thread.Builder workerThreads;
+    private final BlockingQueue<OrderSubmission> queue;
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean accepting;
+
+    OrderSubmissionQueue(OrderService orderService, OrderSubmissionRegistry registry,
+                         OrderSubmissionProperties properties, Environment environment) {
+        this.orderService = orderService;
+        this.registry = registry;
+        this.properties = properties;
+        this.workerThreads = Threading.VIRTUAL.isActive(environment)
+                ? Thread.ofVirtual().name("order-submission-", 0)
+                : Thread.ofPlatform().name("order-submission-", 0);
+        this.queue = new ArrayBlockingQueue<>(properties.queueCapacity());
+    }
+
+    public OrderId submit(CreateOrderDto createOrderDto) {
+        var submission = OrderSubmission.of(createOrderDto);
+        registry.submitted(submission);
+        if (!accepting || !queue.offer(submission)) {
+            registry.completed(submission.orderId());
+            throw new OrderQueueFullException();
+        }
+        return submission.orderId();
+    }
+
+    @Override
+    public void start() {
+        accepting = true;
+        for (int i = 0; i < properties.workers(); i++) {
+            workers.add(workerThreads.start(this::consume));
+        }
+    }
+
+    @Override
+    public void stop() {
+        accepting = false;
+        long deadline = System.nanoTime() + properties.shutdownTimeout().toNanos();
+        for (var worker : workers) {
+            try {
+                worker.join(Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())));
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        workers.clear();
+
+        var remaining = new ArrayList<OrderSubmission>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            persistByShard(remaining);
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return accepting;
+    }
+
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void consume() {
+        var batch = new ArrayList<OrderSubmission>(properties.batchSize());
+        while (accepting || !queue.isEmpty()) {
+            try {
+                var first = queue.poll(properties.pollTimeout().toMillis(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, properties.batchSize() - 1);
+                persistByShard(batch);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Groups the batch by the shard holding the customers and persists each group in its own transaction, so a
+     * failed group has committed nothing and retrying it one by one never re-submits committed orders.
+     */
+    private void persistByShard(List<OrderSubmission> batch) {
+        Map<Integer, List<OrderSubmission>> groups;
+        try {
+            groups = orderService.groupByCustomerShard(batch);
+        } catch (RuntimeException ex) {
+            log.warn("Resolving shards of {} submitted orders failed, persisting them one by one", batch.size(), ex);
+            batch.forEach(this::persistSingle);
+            batch.forEach(submission -> registry.completed(submission.orderId()));
+            return;
+        }
+        groups.forEach(this::persist);
+    }
+
+    private void persist(int shard, List<OrderSubmission> batch) {
+        try {
+            rejectFailed(batch, orderService.createSubmittedOrders(shard, batch));
+        } catch (RuntimeException ex) {
+            log.warn("Persisting batch of {} submitted orders on shard {} failed, retrying one by one",
+                    batch.size(), shard, ex);
+            batch.forEach(this::persistSingle);
+        } finally {
+            batch.forEach(submission -> registry.completed(submission.orderId()));
+        }
+    }
+
+    private void persistSingle(OrderSubmission submission) {
+        try {
+            rejectFailed(List.of(submission), orderService.createSubmittedOrders(List.of(submission)));
+        } catch (RuntimeException ex) {
+            log.warn("Rejecting submitted order {}", submission.orderId().id(), ex);
+            registry.rejected(submission);
+        }
+    }
+
+    private void rejectFailed(List<OrderSubmission> batch, List<CreateOrderResultDto> results) {
+        for (var result : results) {
+            if (result.errorMessage() != null) {
+                var submission = batch.get(result.index());
+                log.info("Rejecting submitted order {}: {}", submission.orderId().id(), result.errorMessage());
+                registry.rejected(submission);
+            }
+        }
+    }
+}
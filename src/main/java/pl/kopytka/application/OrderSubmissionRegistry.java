@@ -0,0 +1,71 @@
+package pl.kopytka.application;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import pl.kopytka.application.dto.CreateOrderDto;
+import pl.kopytka.application.dto.OrderAddressDto;
+import pl.kopytka.application.dto.OrderDto;
+import pl.kopytka.application.dto.OrderItemDto;
+import pl.kopytka.application.dto.OrderStatusChangedEvent;
+import pl.kopytka.domain.OrderId;
+import pl.kopytka.domain.OrderStatus;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Orders accepted asynchronously that are not (yet) in the database: queued or being persisted ones,
+ * and recently rejected ones kept for status polling.
+ */
+@Component
+class OrderSubmissionRegistry {
+
+    private final Map<OrderId, CreateOrderDto> submitted = new ConcurrentHashMap<>();
+    private final Cache<OrderId, CreateOrderDto> rejected;
+    private final ApplicationEventPublisher eventPublisher;
+
+    OrderSubmissionRegistry(OrderSubmissionProperties properties, ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+        this.rejected = Caffeine.newBuilder()
+                .maximumSize(properties.queueCapacity())
+                .expireAfterWrite(properties.rejectedRetention())
+                .build();
+    }
+
+    void submitted(OrderSubmission submission) {
+        submitted.put(submission.orderId(), submission.order());
+    }
+
+    void rejected(OrderSubmission submission) {
+        rejected.put(submission.orderId(), submission.order());
+        eventPublisher.publishEvent(new OrderStatusChangedEvent(submission.orderId().id(), OrderStatus.REJECTED));
+    }
+
+    void completed(OrderId orderId) {
+        submitted.remove(orderId);
+    }
+
+    Optional<OrderDto> findSubmitted(OrderId orderId) {
+        return Optional.ofNullable(submitted.get(orderId))
+                .map(order -> toOrderDto(orderId, order, OrderStatus.SUBMITTED));
+    }
+
+    Optional<OrderDto> findRejected(OrderId orderId) {
+        return Optional.ofNullable(rejected.getIfPresent(orderId))
+                .map(order -> toOrderDto(orderId, order, OrderStatus.REJECTED));
+    }
+
+    private static OrderDto toOrderDto(OrderId orderId, CreateOrderDto order, OrderStatus status) {
+        var items = order.basketItems() == null ? List.<OrderItemDto>of() : order.basketItems().stream()
+                .map(item -> new OrderItemDto(item.productId(), item.quantity(), item.price(), item.totalPrice()))
+                .toList();
+        var address = order.address() == null ? null : new OrderAddressDto(order.address().street(),
+                order.address().postCode(), order.address().city(), order.address().houseNo());
+
+        return new OrderDto(orderId.id(), order.customerId(), order.price(), status, items, address);
+    }
+}
@@ -0,0 +1,45 @@
+package pl.kopytka.application;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@Entity(name = "outbox_events")
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Getter
+class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_events_seq")
+    @SequenceGenerator(name = "outbox_events_seq", sequenceName = "outbox_events_seq", allocationSize = 50)
+    private Long id;
+
+    @NotNull
+    private UUID aggregateId;
+
+    @NotNull
+    private String type;
+
+    @NotNull
+    @Lob
+    private String payload;
+
+    @NotNull
+    private Instant createAt;
+
+    OutboxEvent(UUID aggregateId, String type, String payload) {
+        this.aggregateId = aggregateId;
+        this.type = type;
+        this.payload = payload;
+        this.createAt = Instant.now();
+    }
+
+    OutboxMessage toMessage() {
+        return new OutboxMessage(id, aggregateId, type, payload, createAt);
+    }
+}
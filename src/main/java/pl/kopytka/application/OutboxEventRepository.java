@@ -0,0 +1,33 @@
+package pl.kopytka.application;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long>, PersistingRepository<OutboxEvent> {
+
+    /**
+     * Lock timeout -2 is Hibernate's SKIP LOCKED, so concurrent relays claim disjoint batches.
+     * Dialects without SKIP LOCKED support fall back to a plain FOR UPDATE.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select e from outbox_events e order by e.id")
+    List<OutboxEvent> claimBatch(Limit limit);
+
+    @Modifying
+    @Query("delete from outbox_events e where e.id in :ids")
+    void deleteAllByIds(List<Long> ids);
+
+    @Query("select min(e.createAt) from outbox_events e")
+    Optional<Instant> findOldestCreateAt();
+}
@@ -0,0 +1,12 @@
+package pl.kopytka.application;
+
+import java.util.List;
+
+/**
+ * Destination for events relayed from the outbox. Delivery is at-least-once: a batch is removed
+ * from the outbox only after {@link #publish(List)} returns, so a sink may see the same message again.
+ */
+public interface OutboxEventSink {
+
+    void publish(List<OutboxMessage> messages);
+}
@@ -0,0 +1,12 @@
+package pl.kopytka.application;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public record OutboxMessage(
+        long id,
+        UUID aggregateId,
+        String type,
+        String payload,
+        Instant createAt) {
+}
@@ -0,0 +1,142 @@
+package pl.kopytka.application;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background relay moving events from the outbox table to the {@link OutboxEventSink}. Each batch is claimed,
+ * published and deleted in one transaction; a full batch is followed immediately by the next one, otherwise
+ * the relay waits for the poll interval. Every shard has its own outbox, relayed in turn.
+ */
+@Slf4j
+@Component
+class OutboxRelay implements SmartLifecycle {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxEventSink sink;
+    private final OutboxProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final ShardRouter shardRouter;
+    private final Timer lag;
+    private final Counter published;
+    private volatile Thread worker;
+    private volatile CountDownLatch stopped;
+
+    OutboxRelay(OutboxEventRepository outboxEventRepository, OutboxEventSink sink, OutboxProperties properties,
+                TransactionTemplate transactionTemplate, ShardRouter shardRouter, MeterRegistry meterRegistry) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.sink = sink;
+        this.properties = properties;
+        this.transactionTemplate = transactionTemplate;
+        this.shardRouter = shardRouter;
+        this.lag = Timer.builder("outbox.relay.lag")
+                .description("Time between storing an event in the outbox and publishing it")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.published = Counter.builder("outbox.relay.published")
+                .description("Events published from the outbox")
+                .register(meterRegistry);
+        Gauge.builder("outbox.relay.oldest.age", this, OutboxRelay::oldestPendingAgeMillis)
+                .description("Age of the oldest event still waiting in the outbox, measured when scraped")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Publishes a single batch from every shard and returns the largest number of events relayed from one shard.
+     */
+    int relayBatch() {
+        return shardRouter.onEachShard(this::relayShardBatch).stream()
+                .mapToInt(Integer::intValue)
+                .max()
+                .orElse(0);
+    }
+
+    private int relayShardBatch() {
+        Integer relayed = transactionTemplate.execute(status -> {
+            var events = outboxEventRepository.claimBatch(Limit.of(properties.batchSize()));
+            if (events.isEmpty()) {
+                return 0;
+            }
+            sink.publish(events.stream().map(OutboxEvent::toMessage).toList());
+            outboxEventRepository.deleteAllByIds(events.stream().map(OutboxEvent::getId).toList());
+
+            var now = Instant.now();
+            events.forEach(event -> lag.record(Duration.between(event.getCreateAt(), now)));
+            published.increment(events.size());
+            return events.size();
+        });
+        return relayed == null ? 0 : relayed;
+    }
+
+    @Override
+    public void start() {
+        if (properties.relayEnabled()) {
+            stopped = new CountDownLatch(1);
+            worker = Thread.ofPlatform().name("outbox-relay").daemon().start(this::run);
+        }
+    }
+
+    @Override
+    public void stop() {
+        var current = worker;
+        worker = null;
+        if (current != null) {
+            stopped.countDown();
+            try {
+                current.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return worker != null;
+    }
+
+    private void run() {
+        var stopSignal = stopped;
+        try {
+            while (stopSignal.getCount() > 0) {
+                try {
+                    if (relayBatch() < properties.batchSize()) {
+                        stopSignal.await(properties.pollInterval().toMillis(), TimeUnit.MILLISECONDS);
+                    }
+                } catch (RuntimeException ex) {
+                    log.warn("Relaying outbox events failed, retrying in {}", properties.pollInterval(), ex);
+                    stopSignal.await(properties.pollInterval().toMillis(), TimeUnit.MILLISECONDS);
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Queried only when the gauge is scraped, so the relay loop does not pay for it on every batch.
+     */
+    private double oldestPendingAgeMillis() {
+        var oldest = shardRouter.onEachShard(outboxEventRepository::findOldestCreateAt).stream()
+                .flatMap(Optional::stream)
+                .min(Comparator.naturalOrder());
+        return oldest
+                .map(createAt -> Math.max(0, Duration.between(createAt, Instant.now()).toMillis()))
+                .orElse(0L);
+    }
+}
@@ -0,0 +1,23 @@
+package pl.kopytka.application;
+
+import java.util.List;
+
+/**
+ * Aggregates have application-assigned ids, so {@code save} merges them (SELECT before INSERT).
+ * {@code persist} issues plain INSERTs that Hibernate can group into JDBC batches.
+ */
+public interface PersistingRepository<T> {
+
+    <S extends T> S persist(S entity);
+
+    /**
+     * Like {@link #persist}, but constraint violations surface here even when joining an outer transaction.
+     */
+    <S extends T> S persistAndFlush(S entity);
+
+    /**
+     * Flushes every {@code hibernate.jdbc.batch_size} entities, so the inserts go out in full JDBC batches.
+     * The persistence context is not cleared: the entities stay managed for the rest of the caller's transaction.
+     */
+    <S extends T> List<S> persistAll(List<S> entities);
+}
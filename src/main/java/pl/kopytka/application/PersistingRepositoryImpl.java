@@ -0,0 +1,47 @@
+package pl.kopytka.application;
+
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+class PersistingRepositoryImpl<T> implements PersistingRepository<T> {
+
+    private final EntityManager entityManager;
+    private final int batchSize;
+
+    PersistingRepositoryImpl(EntityManager entityManager,
+                             @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int batchSize) {
+        this.entityManager = entityManager;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    @Transactional
+    public <S extends T> S persist(S entity) {
+        entityManager.persist(entity);
+        return entity;
+    }
+
+    @Override
+    @Transactional
+    public <S extends T> S persistAndFlush(S entity) {
+        entityManager.persist(entity);
+        entityManager.flush();
+        return entity;
+    }
+
+    @Override
+    @Transactional
+    public <S extends T> List<S> persistAll(List<S> entities) {
+        for (int i = 0; i < entities.size(); i++) {
+            entityManager.persist(entities.get(i));
+            if ((i + 1) % batchSize == 0) {
+                entityManager.flush();
+            }
+        }
+        entityManager.flush();
+        return entities;
+    }
+}
@@ -0,0 +1,41 @@
+package pl.kopytka.application;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Read-your-writes on top of lagging replicas: a lookup runs in a read-only transaction, which is served by a
+ * replica, and is repeated in a read-write transaction, which is served by the primary, when the replica has not
+ * seen the row yet or only an older state of it.
+ */
+@Component
+class ReplicaReads {
+
+    private final boolean replicated;
+    private final TransactionTemplate replicaTransaction;
+    private final TransactionTemplate primaryTransaction;
+
+    ReplicaReads(ShardingProperties properties, TransactionTemplate transactionTemplate) {
+        this.replicated = properties.shards().stream().anyMatch(shard -> !shard.replicas().isEmpty());
+        this.primaryTransaction = transactionTemplate;
+        this.replicaTransaction = new TransactionTemplate(Objects.requireNonNull(transactionTemplate.getTransactionManager()));
+        replicaTransaction.setReadOnly(true);
+    }
+
+    <T> Optional<T> find(Supplier<Optional<T>> lookup) {
+        return find(lookup, found -> true);
+    }
+
+    <T> Optional<T> find(Supplier<Optional<T>> lookup, Predicate<T> fresh) {
+        var found = replicaTransaction.execute(status -> lookup.get());
+        if (!replicated || found.filter(fresh).isPresent()) {
+            return found;
+        }
+        return primaryTransaction.execute(status -> lookup.get());
+    }
+}
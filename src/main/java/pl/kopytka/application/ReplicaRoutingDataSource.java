@@ -0,0 +1,23 @@
+package pl.kopytka.application;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands out connections from the replicas of one shard in turn.
+ */
+class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final int replicaCount;
+    private final AtomicInteger next = new AtomicInteger();
+
+    ReplicaRoutingDataSource(int replicaCount) {
+        this.replicaCount = replicaCount;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return Math.floorMod(next.getAndIncrement(), replicaCount);
+    }
+}
@@ -0,0 +1,52 @@
+package pl.kopytka.application;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import pl.kopytka.domain.Customer;
+import pl.kopytka.domain.Order;
+import pl.kopytka.domain.OrderAddress;
+import pl.kopytka.domain.OrderItem;
+
+import javax.cache.CacheManager;
+import java.net.URI;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Local Caffeine caches backing the Hibernate second-level cache. Regions are created up front with bounded size
+ * and lifetime; Hibernate is configured to fail on any other region. Each application context gets its own cache
+ * manager under a unique URI, so contexts never see each other's entries or statistics.
+ */
+@Configuration(proxyBeanMethods = false)
+class SecondLevelCacheConfiguration {
+
+    private static final List<String> REGIONS = List.of(
+            Customer.CACHE_REGION, OrderAddress.CACHE_REGION, OrderItem.CACHE_REGION, Order.ITEMS_CACHE_REGION);
+
+    @Bean(destroyMethod = "close")
+    CacheManager secondLevelCacheManager(SecondLevelCacheProperties properties, MeterRegistry meterRegistry) {
+        var cacheManager = new CaffeineCachingProvider()
+                .getCacheManager(URI.create("kopytka-second-level-cache-" + UUID.randomUUID()), getClass().getClassLoader());
+        for (var region : REGIONS) {
+            var configuration = new CaffeineConfiguration<>();
+            configuration.setMaximumSize(OptionalLong.of(properties.maximumSize()));
+            configuration.setExpireAfterWrite(OptionalLong.of(properties.timeToLive().toNanos()));
+            configuration.setStoreByValue(false);
+            configuration.setStatisticsEnabled(true);
+            JCacheMetrics.monitor(meterRegistry, cacheManager.createCache(region, configuration));
+        }
+        return cacheManager;
+    }
+
+    @Bean
+    HibernatePropertiesCustomizer secondLevelCacheManagerCustomizer(CacheManager secondLevelCacheManager) {
+        return hibernateProperties -> hibernateProperties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+    }
+}
@@ -0,0 +1,15 @@
+package pl.kopytka.application;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Bounds of every Hibernate second-level cache region.
+ */
+@ConfigurationProperties("kopytka.second-level-cache")
+record SecondLevelCacheProperties(
+        @DefaultValue("10000") long maximumSize,
+        @DefaultValue("10m") Duration timeToLive) {
+}
@@ -0,0 +1,31 @@
+package pl.kopytka.application;
+
+/**
+ * Timed stages of the service operations, published as {@code kopytka.service.stage} with
+ * {@code operation} and {@code stage} tags.
+ */
+enum ServiceStage {
+
+    CREATE_ORDER_CUSTOMER("createOrder", "customer"),
+    CREATE_ORDER_MAPPING("createOrder", "mapping"),
+    CREATE_ORDER_DOMAIN("createOrder", "domain"),
+    CREATE_ORDER_PERSIST("createOrder", "persist"),
+    CREATE_ORDER_OUTBOX("createOrder", "outbox"),
+    CREATE_ORDER_COMMIT("createOrder", "commit"),
+    PAY_UPDATE("pay", "update"),
+    PAY_LOAD("pay", "load"),
+    PAY_OUTBOX("pay", "outbox"),
+    GET_ORDER_SUBMITTED("getOrderById", "submitted"),
+    GET_ORDER_QUERY("getOrderById", "query"),
+    GET_ORDER_MAPPING("getOrderById", "mapping"),
+    GET_CUSTOMER_LOAD("getCustomer", "load"),
+    ADD_CUSTOMER_PERSIST("addCustomer", "persist");
+
+    final String operation;
+    final String stage;
+
+    ServiceStage(String operation, String stage) {
+        this.operation = operation;
+        this.stage = stage;
+    }
+}
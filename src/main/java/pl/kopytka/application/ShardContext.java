@@ -0,0 +1,33 @@
+package pl.kopytka.application;
+
+import java.util.function.Supplier;
+
+/**
+ * Shard used by the current thread; read by {@link ShardRoutingDataSource} when a connection is acquired.
+ */
+final class ShardContext {
+
+    private static final ThreadLocal<Integer> currentShard = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    static int current() {
+        var shard = currentShard.get();
+        return shard == null ? 0 : shard;
+    }
+
+    static <T> T on(int shard, Supplier<T> action) {
+        var previous = currentShard.get();
+        currentShard.set(shard);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                currentShard.remove();
+            } else {
+                currentShard.set(previous);
+            }
+        }
+    }
+}
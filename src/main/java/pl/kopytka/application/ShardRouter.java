@@ -0,0 +1,126 @@
+package pl.kopytka.application;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import pl.kopytka.domain.UuidV7;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Maps identifiers to shards through the bucket embedded in them. A customer and its orders share a bucket,
+ * so everything written for one customer lands on one shard and a transaction never spans shards.
+ * Ids embed buckets rather than shard numbers, so moving a bucket to another shard only changes this mapping.
+ */
+@Component
+class ShardRouter {
+
+    private final int shardCount;
+    private final Map<Integer, Integer> bucketOverrides;
+
+    ShardRouter(ShardingProperties properties) {
+        this.shardCount = Math.max(1, properties.shards().size());
+        this.bucketOverrides = Map.copyOf(properties.bucketOverrides());
+        bucketOverrides.forEach((bucket, shard) -> {
+            if (shard < 0 || shard >= shardCount) {
+                throw new IllegalArgumentException("Bucket " + bucket + " is mapped to unknown shard " + shard);
+            }
+        });
+    }
+
+    int shardCount() {
+        return shardCount;
+    }
+
+    int shardOf(UUID id) {
+        if (id == null || shardCount == 1) {
+            return 0;
+        }
+        int bucket = UuidV7.bucket(id);
+        return bucketOverrides.getOrDefault(bucket, bucket % shardCount);
+    }
+
+    /**
+     * Runs {@code action} against {@code shard}. Must be called outside of a transaction, because a transaction
+     * keeps using the connection it started with.
+     */
+    <T> T on(int shard, Supplier<T> action) {
+        if (shard != ShardContext.current() && TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Cannot switch to shard " + shard + " inside a transaction on shard "
+                    + ShardContext.current());
+        }
+        return ShardContext.on(shard, action);
+    }
+
+    <T> T onShardOf(UUID id, Supplier<T> action) {
+        return on(shardOf(id), action);
+    }
+
+    /**
+     * Looks {@code id} up on its own shard first and scatters to the remaining shards only if it is not there,
+     * e.g. for rows written before their bucket was moved.
+     */
+    <T> Optional<T> find(UUID id, Supplier<Optional<T>> lookup) {
+        int home = shardOf(id);
+        var found = on(home, lookup);
+        for (int shard = 0; found.isEmpty() && shard < shardCount; shard++) {
+            if (shard != home) {
+                found = on(shard, lookup);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Batch variant of {@link #find}: looks the ids up on their own shards first, with one {@code lookup} per
+     * shard, and scatters the ids not found there to the remaining shards. {@code lookup} returns the ids it
+     * found among the given ones. Returns the shard holding each found id.
+     */
+    Map<UUID, Integer> locate(Collection<UUID> ids, Function<List<UUID>, Collection<UUID>> lookup) {
+        var located = new HashMap<UUID, Integer>();
+        var missing = new LinkedHashSet<UUID>();
+        groupByShard(ids, Function.identity()).forEach((shard, shardIds) -> {
+            var found = on(shard, () -> lookup.apply(shardIds));
+            found.forEach(id -> located.put(id, shard));
+            shardIds.stream().filter(id -> !located.containsKey(id)).forEach(missing::add);
+        });
+        for (int shard = 0; !missing.isEmpty() && shard < shardCount; shard++) {
+            int candidateShard = shard;
+            var candidates = missing.stream().filter(id -> shardOf(id) != candidateShard).toList();
+            if (!candidates.isEmpty()) {
+                var found = on(candidateShard, () -> lookup.apply(candidates));
+                found.forEach(id -> located.put(id, candidateShard));
+                found.forEach(missing::remove);
+            }
+        }
+        return located;
+    }
+
+    <T> List<T> onEachShard(Supplier<T> action) {
+        var results = new ArrayList<T>(shardCount);
+        for (int shard = 0; shard < shardCount; shard++) {
+            results.add(on(shard, action));
+        }
+        return results;
+    }
+
+    /**
+     * Splits {@code items} by shard, keeping their relative order within each shard.
+     */
+    <T> Map<Integer, List<T>> groupByShard(Collection<T> items, Function<T, UUID> id) {
+        var groups = new LinkedHashMap<Integer, List<T>>();
+        for (var item : items) {
+            groups.computeIfAbsent(shardOf(id.apply(item)), shard -> new ArrayList<>()).add(item);
+        }
+        return groups;
+    }
+}
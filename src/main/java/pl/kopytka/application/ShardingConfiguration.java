@@ -0,0 +1,104 @@
+package pl.kopytka.application;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.SchemaToolingSettings;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Set;
+
+/**
+ * Replaces {@code spring.datasource} with a {@link ShardRoutingDataSource} over {@code kopytka.sharding.shards}.
+ * Every shard holds the full schema. Shards with replicas get a {@link LazyConnectionDataSourceProxy}, which
+ * acquires the connection on the first statement, once the transaction is known to be read-only.
+ * Every shard and replica gets its own pool configured with {@code spring.datasource.hikari}.
+ */
+@Slf4j
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty("kopytka.sharding.shards[0].url")
+class ShardingConfiguration {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    HikariConfig shardPoolConfig() {
+        return new HikariConfig();
+    }
+
+    @Bean
+    DataSource dataSource(ShardingProperties properties, HikariConfig shardPoolConfig) {
+        var shards = properties.shards();
+        var targets = new HashMap<Object, Object>();
+        for (int shard = 0; shard < shards.size(); shard++) {
+            targets.put(shard, shardDataSource(shard, shards.get(shard), shardPoolConfig));
+        }
+        var dataSource = new ShardRoutingDataSource();
+        dataSource.setTargetDataSources(targets);
+        dataSource.setDefaultTargetDataSource(targets.get(0));
+        dataSource.setLenientFallback(false);
+        return dataSource;
+    }
+
+    private static DataSource shardDataSource(int index, ShardingProperties.Shard shard, HikariConfig poolConfig) {
+        var primary = dataSource("shard-" + index, shard.url(), shard.username(), shard.password(), poolConfig);
+        if (shard.replicas().isEmpty()) {
+            return primary;
+        }
+        var replicas = new HashMap<Object, Object>();
+        for (int replica = 0; replica < shard.replicas().size(); replica++) {
+            var properties = shard.replicas().get(replica);
+            replicas.put(replica, dataSource("shard-" + index + "-replica-" + replica, properties.url(),
+                    properties.username(), properties.password(), poolConfig));
+        }
+        var replicaDataSource = new ReplicaRoutingDataSource(replicas.size());
+        replicaDataSource.setTargetDataSources(replicas);
+        replicaDataSource.setLenientFallback(false);
+        replicaDataSource.afterPropertiesSet();
+
+        var dataSource = new LazyConnectionDataSourceProxy(primary);
+        dataSource.setReadOnlyDataSource(replicaDataSource);
+        return dataSource;
+    }
+
+    private static DataSource dataSource(String poolName, String url, String username, String password,
+                                         HikariConfig poolConfig) {
+        var config = new HikariConfig();
+        poolConfig.copyStateTo(config);
+        config.setPoolName(poolName);
+        config.setJdbcUrl(url);
+        config.setUsername(username);
+        config.setPassword(password);
+        return new HikariDataSource(config);
+    }
+
+    /**
+     * Hibernate creates the schema on the default shard while starting up; the remaining shards get the same
+     * schema right after.
+     */
+    @Bean
+    InitializingBean shardSchemaCreator(EntityManagerFactory entityManagerFactory, ShardingProperties properties) {
+        return () -> {
+            var action = String.valueOf(entityManagerFactory.getProperties().get(SchemaToolingSettings.HBM2DDL_AUTO));
+            if (!Set.of("create", "create-drop").contains(action)) {
+                return;
+            }
+            var schemaManager = entityManagerFactory.unwrap(SessionFactory.class).getSchemaManager();
+            for (int shard = 1; shard < properties.shards().size(); shard++) {
+                log.info("Creating schema on shard {}", shard);
+                ShardContext.on(shard, () -> {
+                    schemaManager.exportMappedObjects(true);
+                    return null;
+                });
+            }
+        };
+    }
+}
@@ -0,0 +1,25 @@
+package pl.kopytka.application;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Without {@code shards} the application runs on the single {@code spring.datasource}. Buckets are spread over
+ * shards by {@code bucket % shards}; {@code bucketOverrides} pins single buckets to another shard, e.g. after
+ * their rows were copied there while rebalancing. Read-only transactions of a shard are served by its
+ * {@code replicas} in turn, if it has any.
+ */
+@ConfigurationProperties("kopytka.sharding")
+record ShardingProperties(
+        @DefaultValue List<Shard> shards,
+        @DefaultValue Map<Integer, Integer> bucketOverrides) {
+
+    record Shard(String url, String username, String password, @DefaultValue List<Replica> replicas) {
+    }
+
+    record Replica(String url, String username, String password) {
+    }
+}
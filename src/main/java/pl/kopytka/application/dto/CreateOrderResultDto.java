@@ -0,0 +1,17 @@
+package pl.kopytka.application.dto;
+
+import java.util.UUID;
+
+public record CreateOrderResultDto(
+        int index,
+        UUID orderId,
+        String errorMessage) {
+
+    public static CreateOrderResultDto created(int index, UUID orderId) {
+        return new CreateOrderResultDto(index, orderId, null);
+    }
+
+    public static CreateOrderResultDto failed(int index, String errorMessage) {
+        return new CreateOrderResultDto(index, null, errorMessage);
+    }
+}
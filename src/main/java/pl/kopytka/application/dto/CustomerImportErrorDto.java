@@ -0,0 +1,7 @@
+package pl.kopytka.application.dto;
+
+public record CustomerImportErrorDto(
+        int row,
+        String email,
+        String errorMessage) {
+}
@@ -0,0 +1,8 @@
+package pl.kopytka.application.dto;
+
+import java.util.List;
+
+public record CustomerImportReportDto(
+        int imported,
+        List<CustomerImportErrorDto> errors) {
+}
@@ -0,0 +1,15 @@
+package pl.kopytka.application.dto;
+
+public record CustomerImportRow(
+        int row,
+        CreateCustomerDto customer,
+        String error) {
+
+    public static CustomerImportRow parsed(int row, CreateCustomerDto customer) {
+        return new CustomerImportRow(row, customer, null);
+    }
+
+    public static CustomerImportRow unreadable(int row, String error) {
+        return new CustomerImportRow(row, null, error);
+    }
+}
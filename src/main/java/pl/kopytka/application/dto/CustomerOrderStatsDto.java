@@ -0,0 +1,31 @@
+package pl.kopytka.application.dto;
+
+import pl.kopytka.domain.Money;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.UUID;
+
+public record CustomerOrderStatsDto(
+        UUID customerId,
+        long orderCount,
+        long paidOrderCount,
+        BigDecimal paidRevenue,
+        Instant lastOrderAt) {
+
+    public CustomerOrderStatsDto(UUID customerId, long orderCount, long paidOrderCount, Money paidRevenue, Instant lastOrderAt) {
+        this(customerId, orderCount, paidOrderCount, paidRevenue == null ? Money.ZERO.amount() : paidRevenue.amount(), lastOrderAt);
+    }
+
+    public static CustomerOrderStatsDto empty(UUID customerId) {
+        return new CustomerOrderStatsDto(customerId, 0, 0, Money.ZERO.amount(), null);
+    }
+
+    public boolean sameAs(CustomerOrderStatsDto other) {
+        return orderCount == other.orderCount
+                && paidOrderCount == other.paidOrderCount
+                && paidRevenue.compareTo(other.paidRevenue) == 0
+                && Objects.equals(lastOrderAt, other.lastOrderAt);
+    }
+}
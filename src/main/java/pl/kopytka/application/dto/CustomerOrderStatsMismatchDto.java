@@ -0,0 +1,9 @@
+package pl.kopytka.application.dto;
+
+import java.util.UUID;
+
+public record CustomerOrderStatsMismatchDto(
+        UUID customerId,
+        CustomerOrderStatsDto expected,
+        CustomerOrderStatsDto actual) {
+}
@@ -0,0 +1,6 @@
+package pl.kopytka.application.dto;
+
+public record IdempotentResponse(
+        String response,
+        boolean replayed) {
+}
@@ -0,0 +1,12 @@
+package pl.kopytka.application.dto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+public record OrderCreatedEvent(
+        UUID orderId,
+        UUID customerId,
+        BigDecimal price,
+        Instant createAt) {
+}
@@ -0,0 +1,22 @@
+package pl.kopytka.application.dto;
+
+import pl.kopytka.domain.Money;
+import pl.kopytka.domain.OrderStatus;
+
+import java.util.UUID;
+
+public record OrderDetailsRow(
+        UUID id,
+        UUID customerId,
+        Money price,
+        OrderStatus status,
+        int version,
+        String street,
+        String postCode,
+        String city,
+        String houseNo,
+        UUID productId,
+        Integer quantity,
+        Money itemPrice,
+        Money itemTotalPrice) {
+}
@@ -0,0 +1,12 @@
+package pl.kopytka.application.dto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+public record OrderPaidEvent(
+        UUID orderId,
+        UUID customerId,
+        BigDecimal price,
+        Instant paidAt) {
+}
@@ -0,0 +1,13 @@
+package pl.kopytka.application.dto;
+
+import pl.kopytka.domain.OrderStatus;
+
+import java.util.UUID;
+
+/**
+ * Published in-process when an order reaches a new status; listeners receive it after the change is committed.
+ */
+public record OrderStatusChangedEvent(
+        UUID orderId,
+        OrderStatus status) {
+}
@@ -0,0 +1,19 @@
+package pl.kopytka.application.dto;
+
+import pl.kopytka.domain.Money;
+import pl.kopytka.domain.OrderStatus;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+public record OrderSummaryDto(
+        UUID id,
+        OrderStatus status,
+        BigDecimal price,
+        Instant createAt) {
+
+    public OrderSummaryDto(UUID id, OrderStatus status, Money price, Instant createAt) {
+        this(id, status, price.amount(), createAt);
+    }
+}
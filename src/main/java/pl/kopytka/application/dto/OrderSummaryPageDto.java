@@ -0,0 +1,8 @@
+package pl.kopytka.application.dto;
+
+import java.util.List;
+
+public record OrderSummaryPageDto(
+        List<OrderSummaryDto> orders,
+        String nextCursor) {
+}
@@ -0,0 +1,14 @@
+package pl.kopytka.application.dto;
+
+import pl.kopytka.domain.Money;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public record PaidOrderRow(
+        UUID id,
+        UUID customerId,
+        Money price,
+        Instant paidAt,
+        int version) {
+}
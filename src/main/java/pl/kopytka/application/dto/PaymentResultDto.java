@@ -0,0 +1,12 @@
+package pl.kopytka.application.dto;
+
+import java.util.UUID;
+
+public record PaymentResultDto(
+        UUID orderId,
+        PaymentStatus status) {
+
+    public enum PaymentStatus {
+        PAID, ALREADY_PAID, NOT_FOUND
+    }
+}
@@ -0,0 +1,8 @@
+package pl.kopytka.application.dto;
+
+/**
+ * A read model together with the {@code @Version} of the row it was read from. {@code version} is null for
+ * orders that exist only in memory (submitted or rejected asynchronously).
+ */
+public record VersionedDto<T>(T dto, Integer version) {
+}
@@ -0,0 +1,12 @@
+package pl.kopytka.application.exception;
+
+public class IdempotencyKeyReusedException extends RuntimeException {
+
+    public static String createExceptionMessage(String idempotencyKey) {
+        return String.format("Idempotency key: %s was already used for a different request", idempotencyKey);
+    }
+
+    public IdempotencyKeyReusedException(String idempotencyKey) {
+        super(createExceptionMessage(idempotencyKey));
+    }
+}
@@ -0,0 +1,12 @@
+package pl.kopytka.application.exception;
+
+public class InvalidCustomerImportException extends RuntimeException {
+
+    public static String createExceptionMessage(String reason) {
+        return String.format("Invalid customer import: %s", reason);
+    }
+
+    public InvalidCustomerImportException(String reason) {
+        super(createExceptionMessage(reason));
+    }
+}
@@ -0,0 +1,12 @@
+package pl.kopytka.application.exception;
+
+public class InvalidOrderIdListException extends RuntimeException {
+
+    public static String createExceptionMessage(int processed, String reason) {
+        return String.format("Invalid order id list after %d processed ids: %s", processed, reason);
+    }
+
+    public InvalidOrderIdListException(int processed, String reason) {
+        super(createExceptionMessage(processed, reason));
+    }
+}
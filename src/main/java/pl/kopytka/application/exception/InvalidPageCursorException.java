@@ -0,0 +1,12 @@
+package pl.kopytka.application.exception;
+
+public class InvalidPageCursorException extends RuntimeException {
+
+    public static String createExceptionMessage(String cursor) {
+        return String.format("Invalid page cursor: %s", cursor);
+    }
+
+    public InvalidPageCursorException(String cursor) {
+        super(createExceptionMessage(cursor));
+    }
+}
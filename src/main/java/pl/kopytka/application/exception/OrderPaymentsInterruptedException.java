@@ -0,0 +1,22 @@
+package pl.kopytka.application.exception;
+
+import pl.kopytka.application.dto.PaymentResultDto;
+
+import java.util.List;
+
+public class OrderPaymentsInterruptedException extends RuntimeException {
+
+    private final List<PaymentResultDto> results;
+
+    public OrderPaymentsInterruptedException(List<PaymentResultDto> results, RuntimeException cause) {
+        super(cause.getMessage(), cause);
+        this.results = List.copyOf(results);
+    }
+
+    /**
+     * Results of the ids processed, and committed, before the payments stopped.
+     */
+    public List<PaymentResultDto> getResults() {
+        return results;
+    }
+}
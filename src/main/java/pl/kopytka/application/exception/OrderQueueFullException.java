@@ -0,0 +1,8 @@
+package pl.kopytka.application.exception;
+
+public class OrderQueueFullException extends RuntimeException {
+
+    public OrderQueueFullException() {
+        super("Order submission queue is full, retry later");
+    }
+}
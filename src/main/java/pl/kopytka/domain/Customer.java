@@ -3,18 +3,29 @@ package pl.kopytka.domain;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import jakarta.persistence.Version;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import java.util.Locale;
 
 @Entity(name = "customers")
+@Table(uniqueConstraints = @UniqueConstraint(name = Customer.NORMALIZED_EMAIL_CONSTRAINT, columnNames = "normalized_email"))
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Customer.CACHE_REGION)
 @Getter
 public class Customer {
 
+    public static final String NORMALIZED_EMAIL_CONSTRAINT = "uk_customers_normalized_email";
+    public static final String CACHE_REGION = "customer-entities";
+
     @Id
     private CustomerId customerId;
 
@@ -26,16 +37,26 @@ public class Customer {
 
     @NotBlank
     @Email
-    @Column(unique = true)
     private String email;
 
+    @Column(nullable = false)
+    private String normalizedEmail;
+
     @Version
     private int version;
 
     public Customer(String firstName, String lastName, String email) {
-        this.customerId = CustomerId.newOne();
+        this.normalizedEmail = normalizeEmail(email);
+        this.customerId = CustomerId.newOne(normalizedEmail);
         this.firstName = firstName;
         this.lastName = lastName;
         this.email = email;
     }
+
+    /**
+     * Emails are unique regardless of case and surrounding whitespace.
+     */
+    public static String normalizeEmail(String email) {
+        return email.strip().toLowerCase(Locale.ROOT);
+    }
 }
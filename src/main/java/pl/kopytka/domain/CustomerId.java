@@ -8,7 +8,19 @@ import java.util.UUID;
 public record CustomerId(UUID customerId) {
 
     public static CustomerId newOne() {
-        return new CustomerId(UUID.randomUUID());
+        return new CustomerId(UuidV7.next());
+    }
+
+    /**
+     * The bucket is derived from the normalized email, so customers sharing an email always share a bucket.
+     */
+    public static CustomerId newOne(String normalizedEmail) {
+        int hash = normalizedEmail.hashCode();
+        return new CustomerId(UuidV7.next((hash ^ (hash >>> 16)) & (UuidV7.BUCKETS - 1)));
+    }
+
+    public int bucket() {
+        return UuidV7.bucket(customerId);
     }
 
     public UUID id() {
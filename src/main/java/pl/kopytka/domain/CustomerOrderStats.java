@@ -0,0 +1,42 @@
+package pl.kopytka.domain;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.validation.constraints.NotNull;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Denormalized per-customer order totals, updated in the same transactions as the customer's orders.
+ */
+@Entity(name = "customer_order_stats")
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Getter
+public class CustomerOrderStats {
+
+    @Id
+    private UUID customerId;
+
+    private long orderCount;
+
+    private long paidOrderCount;
+
+    @NotNull
+    private BigDecimal paidRevenue;
+
+    private Instant lastOrderAt;
+
+    public CustomerOrderStats(UUID customerId, long orderCount, long paidOrderCount, BigDecimal paidRevenue,
+                              Instant lastOrderAt) {
+        this.customerId = customerId;
+        this.orderCount = orderCount;
+        this.paidOrderCount = paidOrderCount;
+        this.paidRevenue = paidRevenue;
+        this.lastOrderAt = lastOrderAt;
+    }
+}
@@ -1,41 +1,88 @@
 package pl.kopytka.domain;
 
-import jakarta.persistence.Embeddable;
-
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 
-@Embeddable
-public record Money(BigDecimal amount) {
+public final class Money {
+
+    private static final int SCALE = 2;
+
+    public static final Money ZERO = new Money(0L);
 
-    public static final Money ZERO = new Money(BigDecimal.ZERO);
+    private final long minorUnits;
 
     public Money(BigDecimal amount) {
         if (amount == null) {
             throw new IllegalArgumentException("Amount cannot be null");
         }
-        if (amount.compareTo(BigDecimal.ZERO) < 0) {
+        if (amount.signum() < 0) {
             throw new IllegalArgumentException("Amount cannot be negative");
         }
-        this.amount = setScale(amount);
+        this.minorUnits = toMinorUnits(amount);
+    }
+
+    private Money(long minorUnits) {
+        if (minorUnits < 0) {
+            throw new IllegalArgumentException("Amount cannot be negative");
+        }
+        this.minorUnits = minorUnits;
+    }
+
+    static Money ofMinorUnits(long minorUnits) {
+        return new Money(minorUnits);
+    }
+
+    public BigDecimal amount() {
+        return BigDecimal.valueOf(minorUnits, SCALE);
     }
 
     public Money add(Money money) {
-        return new Money(this.amount.add(money.amount()));
+        try {
+            return new Money(Math.addExact(this.minorUnits, money.minorUnits));
+        } catch (ArithmeticException ex) {
+            throw new IllegalArgumentException("Amount is out of range: " + amount() + " + " + money.amount(), ex);
+        }
     }
 
     public Money subtract(Money money) {
-        return new Money(this.amount.subtract(money.amount));
+        return new Money(this.minorUnits - money.minorUnits);
     }
 
     public Money multiply(int multiplier) {
         if (multiplier <= 0) {
             throw new IllegalArgumentException("Multiplier must be greater than zero");
         }
-        return new Money(this.amount.multiply(new BigDecimal(multiplier)));
+        try {
+            return new Money(Math.multiplyExact(this.minorUnits, multiplier));
+        } catch (ArithmeticException ex) {
+            throw new IllegalArgumentException("Amount is out of range: " + amount() + " * " + multiplier, ex);
+        }
+    }
+
+    long minorUnits() {
+        return minorUnits;
+    }
+
+    private static long toMinorUnits(BigDecimal amount) {
+        try {
+            return amount.setScale(SCALE, RoundingMode.HALF_EVEN).movePointRight(SCALE).longValueExact();
+        } catch (ArithmeticException ex) {
+            throw new IllegalArgumentException("Amount is out of range: " + amount, ex);
+        }
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return this == other || other instanceof Money money && minorUnits == money.minorUnits;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(minorUnits);
     }
 
-    private BigDecimal setScale(BigDecimal input) {
-        return input.setScale(2, RoundingMode.HALF_EVEN);
+    @Override
+    public String toString() {
+        return "Money[amount=" + amount() + "]";
     }
 }
@@ -5,21 +5,39 @@ import jakarta.validation.constraints.NotNull;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.Fetch;
 import org.hibernate.annotations.FetchMode;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.Objects;
 
 import static pl.kopytka.domain.OrderStatus.PAID;
 import static pl.kopytka.domain.OrderStatus.PENDING;
 
 
 @Entity(name = "orders")
+@Table(indexes = {
+        @Index(name = "idx_orders_customer_create_at_id", columnList = "customer_id, createAt, order_id"),
+        @Index(name = "idx_orders_create_at_id", columnList = "createAt, order_id")})
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
+@DynamicUpdate
 @Getter
 public class Order {
 
+    public static final String ITEMS_CACHE_REGION = "order-item-collections";
+
+    /**
+     * The only status an order can be paid from and the status it is paid to. Persisted orders are also paid by a
+     * conditional update guarded by these statuses, so the rule is kept here for both.
+     */
+    public static final OrderStatus PAYABLE_STATUS = PENDING;
+    public static final OrderStatus PAID_STATUS = PAID;
+    public static final String NOT_PAYABLE_MESSAGE = "Order is not in correct state for pay operation";
+
     @Id
     private OrderId id;
 
@@ -32,28 +50,38 @@ public class Order {
     @NotNull
     @ManyToOne
     @JoinColumn(name = "customer_id")
+    @Fetch(FetchMode.SELECT)
     private Customer customer;
 
     @NotNull
-    @AttributeOverride(name = "amount", column = @Column(name = "price"))
+    @Column(name = "price")
     private Money price;
 
     @NotNull
     @Enumerated(EnumType.STRING)
     private OrderStatus status;
 
-    @OneToOne(cascade = CascadeType.ALL)
+    @OneToOne(cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private OrderAddress address;
 
+    /**
+     * Items never change once the order is created, so the collection is lazy and cached read-only; state
+     * transitions such as {@link #pay()} neither load nor flush them.
+     */
     @NotNull
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL)
-    @Fetch(FetchMode.JOIN)
+    @Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = ITEMS_CACHE_REGION)
     private List<OrderItem> items;
 
     @Version
     private int version;
 
     public Order(Customer customer, Money price, List<OrderItem> items, OrderAddress address) {
+        this(OrderId.newOne(customer.getCustomerId()), customer, price, items, address);
+    }
+
+    public Order(OrderId id, Customer customer, Money price, List<OrderItem> items, OrderAddress address) {
+        this.id = id;
         this.customer = customer;
         this.price = price;
         this.items = items;
@@ -62,7 +90,6 @@ public class Order {
     }
 
     private void initialize() {
-        this.id = OrderId.newOne();
         this.createAt = Instant.now();
         this.lastUpdateAt = Instant.now();
         this.status = PENDING;
@@ -71,13 +98,18 @@ public class Order {
     }
 
     private void validatePrice() {
-        Money itemsTotalCost = items.stream()
-                .map(OrderItem::getTotalPrice)
-                .reduce(Money.ZERO, Money::add);
+        long itemsTotalCost = 0;
+        try {
+            for (OrderItem item : items) {
+                itemsTotalCost = Math.addExact(itemsTotalCost, item.getTotalPrice().minorUnits());
+            }
+        } catch (ArithmeticException ex) {
+            throw new OrderDomainException("Order items total is out of range");
+        }
 
-        if (!price.equals(itemsTotalCost)) {
+        if (price.minorUnits() != itemsTotalCost) {
             throw new OrderDomainException("Total order price: " + price
-                    + " is different than order items total: " + itemsTotalCost);
+                    + " is different than order items total: " + Money.ofMinorUnits(itemsTotalCost));
         }
     }
 
@@ -88,12 +120,23 @@ public class Order {
         }
     }
 
+    /**
+     * Changes only the status and the update time. With inline dirty tracking and {@link DynamicUpdate} the flush
+     * neither compares snapshots nor writes the unchanged columns.
+     */
     public void pay() {
-        if (PENDING != status) {
-            throw new OrderDomainException("Order is not in correct state for pay operation");
+        pay(Instant.now());
+    }
+
+    /**
+     * Records {@code paidAt} as the update time, as the conditional update does.
+     */
+    public void pay(Instant paidAt) {
+        if (PAYABLE_STATUS != status) {
+            throw new OrderDomainException(NOT_PAYABLE_MESSAGE);
         }
-        lastUpdateAt = Instant.now();
-        status = PAID;
+        lastUpdateAt = paidAt;
+        status = PAID_STATUS;
     }
 
     public boolean isPendingStatus() {
@@ -103,4 +146,18 @@ public class Order {
     public boolean isPaidStatus() {
         return PAID == status;
     }
+
+    /**
+     * Orders are equal by their assigned id. Item ids embed the order, so this keeps them equal across sessions,
+     * which second-level cache keys of items rely on.
+     */
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Order other && Objects.equals(id, other.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(id);
+    }
 }
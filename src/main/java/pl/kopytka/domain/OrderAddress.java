@@ -6,15 +6,22 @@ import jakarta.validation.constraints.NotBlank;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Immutable;
 
 import java.util.UUID;
 
 
 @Entity(name = "order_addresses")
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Immutable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = OrderAddress.CACHE_REGION)
 @Getter
 public class OrderAddress {
 
+    public static final String CACHE_REGION = "order-addresses";
+
     @Id
     private UUID id;
 
@@ -30,7 +37,7 @@ public class OrderAddress {
     private String houseNo;
 
     public OrderAddress(String street, String postCode, String city, String houseNo) {
-        this.id = UUID.randomUUID();
+        this.id = UuidV7.next();
         this.street = street;
         this.postCode = postCode;
         this.city = city;
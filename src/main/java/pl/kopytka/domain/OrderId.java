@@ -8,7 +8,18 @@ import java.util.UUID;
 public record OrderId(UUID orderId) {
 
     public static OrderId newOne() {
-        return new OrderId(UUID.randomUUID());
+        return new OrderId(UuidV7.next());
+    }
+
+    /**
+     * Orders share the bucket of their customer.
+     */
+    public static OrderId newOne(CustomerId customerId) {
+        return new OrderId(UuidV7.next(customerId.bucket()));
+    }
+
+    public int bucket() {
+        return UuidV7.bucket(orderId);
     }
 
     public UUID id() {
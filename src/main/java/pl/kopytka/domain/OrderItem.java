@@ -5,14 +5,21 @@ import jakarta.validation.constraints.NotNull;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Immutable;
 
 
 @IdClass(OrderItemId.class)
 @Entity(name = "order_items")
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Immutable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = OrderItem.CACHE_REGION)
 @Getter
 public class OrderItem {
 
+    public static final String CACHE_REGION = "order-items";
+
     @Id
     private Integer id;
 
@@ -24,7 +31,7 @@ public class OrderItem {
     private ProductId productId;
 
     @NotNull
-    @AttributeOverride(name = "amount", column = @Column(name = "price"))
+    @Column(name = "price")
     private Money price;
 
     @NotNull
@@ -32,7 +39,7 @@ public class OrderItem {
     private Quantity quantity;
 
     @NotNull
-    @AttributeOverride(name = "amount", column = @Column(name = "total_price"))
+    @Column(name = "total_price")
     private Money totalPrice;
 
     public OrderItem(ProductId productId, Money price, Quantity quantity, Money totalPrice) {
@@ -44,9 +51,15 @@ public class OrderItem {
     }
 
     private void validatePrice() {
-        if (!price.multiply(quantity.value()).equals(totalPrice)) {
+        Money expectedTotalPrice;
+        try {
+            expectedTotalPrice = price.multiply(quantity.value());
+        } catch (IllegalArgumentException ex) {
+            throw new OrderDomainException(ex.getMessage());
+        }
+        if (!expectedTotalPrice.equals(totalPrice)) {
             throw new OrderDomainException("Total price should be equal to price multiplied by quantity. Expected: " +
-                    price.multiply(quantity.value()) + " but was: " + totalPrice);
+                    expectedTotalPrice + " but was: " + totalPrice);
         }
     }
 
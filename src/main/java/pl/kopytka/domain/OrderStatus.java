@@ -1,5 +1,5 @@
 package pl.kopytka.domain;
 
 public enum OrderStatus {
-    PENDING, PAID
+    SUBMITTED, PENDING, PAID, REJECTED
 }
@@ -1,14 +1,29 @@
 package pl.kopytka.web;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import pl.kopytka.application.CustomerService;
+import pl.kopytka.application.OrderService;
+import pl.kopytka.application.dto.CustomerImportReportDto;
+import pl.kopytka.application.dto.CustomerOrderStatsDto;
+import pl.kopytka.application.dto.OrderSummaryPageDto;
+import pl.kopytka.domain.CustomerId;
 import pl.kopytka.web.dto.CreateCustomerRequest;
 
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.util.UUID;
 
 @RestController
@@ -18,12 +33,42 @@ public class CustomerController {
 
     private final CustomerService customerService;
     private final CustomerApiMapper customerApiMapper;
+    private final OrderService orderService;
+    private final ObjectMapper objectMapper;
 
     @GetMapping("/{id}")
-    public ResponseEntity<CustomerResponse> getCustomer(@PathVariable UUID id) {
-        var customer = customerService.getCustomer(id);
-        var customerResponse = customerApiMapper.toCustomerResponse(customer);
-        return ResponseEntity.ok(customerResponse);
+    public ResponseEntity<CustomerResponse> getCustomer(@PathVariable UUID id, WebRequest webRequest) {
+        var customer = customerService.getVersionedCustomer(id);
+        var eTag = VersionETag.of(id, customer.version());
+        if (webRequest.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+        var customerResponse = customerApiMapper.toCustomerResponse(customer.dto());
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .body(customerResponse);
+    }
+
+    @GetMapping("/{id}/orders")
+    public OrderSummaryPageDto getCustomerOrders(@PathVariable UUID id,
+                                                 @RequestParam(required = false) String cursor,
+                                                 @RequestParam(defaultValue = "20") @Min(1) @Max(100) int size) {
+        return orderService.getCustomerOrders(new CustomerId(id), cursor, size);
+    }
+
+    @GetMapping("/{id}/stats")
+    public CustomerOrderStatsDto getCustomerOrderStats(@PathVariable UUID id) {
+        return customerService.getCustomerOrderStats(id);
+    }
+
+    @PostMapping(path = "/import", consumes = "text/csv")
+    public CustomerImportReportDto importCustomersFromCsv(InputStream body) {
+        return customerService.importCustomers(CustomerImportReader.csv(reader(body)));
+    }
+
+    @PostMapping(path = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public CustomerImportReportDto importCustomersFromNdjson(InputStream body) {
+        return customerService.importCustomers(CustomerImportReader.ndjson(reader(body), objectMapper));
     }
 
     @PostMapping
@@ -38,4 +83,8 @@ public class CustomerController {
 
         return ResponseEntity.created(location).build();
     }
+
+    private static BufferedReader reader(InputStream body) {
+        return new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+    }
 }
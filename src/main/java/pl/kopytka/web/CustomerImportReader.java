@@ -0,0 +1,181 @@
+package pl.kopytka.web;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import pl.kopytka.application.dto.CreateCustomerDto;
+import pl.kopytka.application.dto.CustomerImportRow;
+import pl.kopytka.application.exception.InvalidCustomerImportException;
+import pl.kopytka.web.dto.CreateCustomerRequest;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads an uploaded customer file line by line. Lines that cannot be parsed become error rows instead of
+ * failing the import; row numbers are line numbers in the file.
+ */
+abstract class CustomerImportReader implements Iterator<CustomerImportRow> {
+
+    private final BufferedReader reader;
+    private int lineNumber;
+    private CustomerImportRow next;
+
+    CustomerImportReader(BufferedReader reader) {
+        this.reader = reader;
+    }
+
+    static CustomerImportReader ndjson(BufferedReader reader, ObjectMapper objectMapper) {
+        return new NdjsonReader(reader, objectMapper);
+    }
+
+    static CustomerImportReader csv(BufferedReader reader) {
+        return new CsvReader(reader);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            next = readRow();
+        }
+        return next != null;
+    }
+
+    @Override
+    public CustomerImportRow next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        var row = next;
+        next = null;
+        return row;
+    }
+
+    abstract CreateCustomerDto parse(String line);
+
+    String readLine() {
+        try {
+            String line;
+            do {
+                line = reader.readLine();
+                lineNumber++;
+            } while (line != null && line.isBlank());
+            return line;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private CustomerImportRow readRow() {
+        var line = readLine();
+        if (line == null) {
+            return null;
+        }
+        try {
+            return CustomerImportRow.parsed(lineNumber, parse(line));
+        } catch (IllegalArgumentException ex) {
+            return CustomerImportRow.unreadable(lineNumber, ex.getMessage());
+        }
+    }
+
+    private static class NdjsonReader extends CustomerImportReader {
+
+        private final ObjectMapper objectMapper;
+
+        NdjsonReader(BufferedReader reader, ObjectMapper objectMapper) {
+            super(reader);
+            this.objectMapper = objectMapper;
+        }
+
+        @Override
+        CreateCustomerDto parse(String line) {
+            try {
+                var request = objectMapper.readValue(line, CreateCustomerRequest.class);
+                return new CreateCustomerDto(request.firstName(), request.lastName(), request.email());
+            } catch (JsonProcessingException ex) {
+                throw new IllegalArgumentException("Malformed JSON: " + ex.getOriginalMessage());
+            }
+        }
+    }
+
+    /**
+     * CSV with a header row naming the {@code firstName}, {@code lastName} and {@code email} columns. Fields may be
+     * quoted; quoted fields may not span lines.
+     */
+    private static class CsvReader extends CustomerImportReader {
+
+        private int firstName = -1;
+        private int lastName = -1;
+        private int email = -1;
+
+        CsvReader(BufferedReader reader) {
+            super(reader);
+        }
+
+        @Override
+        String readLine() {
+            if (email < 0) {
+                readHeader(super.readLine());
+            }
+            return super.readLine();
+        }
+
+        @Override
+        CreateCustomerDto parse(String line) {
+            var fields = split(line);
+            int columns = Math.max(firstName, Math.max(lastName, email)) + 1;
+            if (fields.size() < columns) {
+                throw new IllegalArgumentException("Expected " + columns + " columns but found " + fields.size());
+            }
+            return new CreateCustomerDto(fields.get(firstName), fields.get(lastName), fields.get(email));
+        }
+
+        private void readHeader(String header) {
+            if (header == null) {
+                throw new InvalidCustomerImportException("missing CSV header");
+            }
+            var columns = split(header).stream().map(String::trim).toList();
+            firstName = columns.indexOf("firstName");
+            lastName = columns.indexOf("lastName");
+            email = columns.indexOf("email");
+            if (firstName < 0 || lastName < 0 || email < 0) {
+                throw new InvalidCustomerImportException("CSV header must contain firstName, lastName and email columns");
+            }
+        }
+
+        private static List<String> split(String line) {
+            var fields = new ArrayList<String>();
+            var field = new StringBuilder();
+            boolean quoted = false;
+            for (int i = 0; i < line.length(); i++) {
+                char c = line.charAt(i);
+                if (quoted) {
+                    if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else if (c == '"') {
+                        quoted = false;
+                    } else {
+                        field.append(c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else {
+                    field.append(c);
+                }
+            }
+            if (quoted) {
+                throw new IllegalArgumentException("Unterminated quoted field");
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+    }
+}
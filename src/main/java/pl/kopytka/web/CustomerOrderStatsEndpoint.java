@@ -0,0 +1,27 @@
+package pl.kopytka.web;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+import pl.kopytka.application.CustomerOrderStatsProjection;
+import pl.kopytka.application.dto.CustomerOrderStatsMismatchDto;
+
+import java.util.List;
+
+/**
+ * {@code GET /actuator/customerorderstats} lists customers whose projected totals differ from the orders table.
+ * The rebuild is a separate, JMX-only {@link CustomerOrderStatsRebuildEndpoint}.
+ */
+@Component
+@Endpoint(id = "customerorderstats")
+@RequiredArgsConstructor
+class CustomerOrderStatsEndpoint {
+
+    private final CustomerOrderStatsProjection customerOrderStats;
+
+    @ReadOperation
+    public List<CustomerOrderStatsMismatchDto> inconsistencies() {
+        return customerOrderStats.findInconsistencies();
+    }
+}
@@ -0,0 +1,26 @@
+package pl.kopytka.web;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.jmx.annotation.JmxEndpoint;
+import org.springframework.stereotype.Component;
+import pl.kopytka.application.CustomerOrderStatsProjection;
+
+import java.util.Map;
+
+/**
+ * Rebuilds the projection from scratch. It deletes and rewrites every row, so it is exposed over JMX only and
+ * never over HTTP.
+ */
+@Component
+@JmxEndpoint(id = "customerorderstatsrebuild")
+@RequiredArgsConstructor
+class CustomerOrderStatsRebuildEndpoint {
+
+    private final CustomerOrderStatsProjection customerOrderStats;
+
+    @WriteOperation
+    public Map<String, Long> rebuild() {
+        return Map.of("customers", customerOrderStats.rebuild());
+    }
+}
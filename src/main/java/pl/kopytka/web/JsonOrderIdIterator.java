@@ -0,0 +1,81 @@
+package pl.kopytka.web;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import pl.kopytka.application.exception.InvalidOrderIdListException;
+import pl.kopytka.domain.OrderId;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+
+/**
+ * Reads order ids from a JSON array of strings one at a time, without materializing the request body.
+ * An invalid entry is reported by {@link #hasNext()}, after every id before it has been returned.
+ */
+class JsonOrderIdIterator implements Iterator<OrderId> {
+
+    private final JsonParser parser;
+    private int read;
+    private UUID next;
+    private boolean finished;
+
+    JsonOrderIdIterator(JsonParser parser) {
+        this.parser = parser;
+        if (nextToken() != JsonToken.START_ARRAY) {
+            throw new InvalidOrderIdListException(0, "expected a JSON array");
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null && !finished) {
+            advance();
+        }
+        return next != null;
+    }
+
+    @Override
+    public OrderId next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        var orderId = new OrderId(next);
+        next = null;
+        return orderId;
+    }
+
+    private void advance() {
+        var token = nextToken();
+        if (token == JsonToken.END_ARRAY) {
+            finished = true;
+            return;
+        }
+        if (token != JsonToken.VALUE_STRING) {
+            throw new InvalidOrderIdListException(read, "expected an order id but found " + token);
+        }
+        try {
+            next = UUID.fromString(getText());
+            read++;
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidOrderIdListException(read, "not an order id: " + getText());
+        }
+    }
+
+    private JsonToken nextToken() {
+        try {
+            return parser.nextToken();
+        } catch (IOException ex) {
+            throw new InvalidOrderIdListException(read, ex.getMessage());
+        }
+    }
+
+    private String getText() {
+        try {
+            return parser.getText();
+        } catch (IOException ex) {
+            throw new InvalidOrderIdListException(read, ex.getMessage());
+        }
+    }
+}
@@ -15,6 +15,8 @@ public interface OrderApiMapper {
 
     CreateOrderDto toCreateOrderDto(CreateOrderRequest request);
 
+    List<CreateOrderDto> toCreateOrderDtos(List<CreateOrderRequest> requests);
+
     CreateOrderItemDto toCreateOrderItemDto(OrderItemRequest item);
     
     List<CreateOrderItemDto> toCreateOrderItemDtos(List<OrderItemRequest> basketItems);
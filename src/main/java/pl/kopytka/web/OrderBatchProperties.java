@@ -0,0 +1,9 @@
+package pl.kopytka.web;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties("kopytka.order-batch")
+record OrderBatchProperties(
+        @DefaultValue("1000") int maxSize) {
+}
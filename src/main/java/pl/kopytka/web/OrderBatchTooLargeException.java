@@ -0,0 +1,8 @@
+package pl.kopytka.web;
+
+public class OrderBatchTooLargeException extends RuntimeException {
+
+    public OrderBatchTooLargeException(int size, int maxSize) {
+        super(String.format("Batch of %d orders exceeds the limit of %d orders", size, maxSize));
+    }
+}
@@ -1,41 +1,237 @@
 package pl.kopytka.web;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import pl.kopytka.application.IdempotencyKeyStore;
 import pl.kopytka.application.OrderService;
+import pl.kopytka.application.OrderSubmissionQueue;
+import pl.kopytka.application.dto.CreateOrderResultDto;
 import pl.kopytka.application.dto.OrderDto;
+import pl.kopytka.application.dto.PaymentResultDto;
 import pl.kopytka.domain.OrderId;
+import pl.kopytka.domain.OrderStatus;
 import pl.kopytka.web.dto.CreateOrderRequest;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.net.URI;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
 import java.util.UUID;
 
+@Slf4j
 @RestController
 @RequestMapping("/api/orders")
 @RequiredArgsConstructor
 public class OrderController {
 
+    static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+    /**
+     * Order version written by a request. Sent back when reading the order, it makes a lagging replica defer to
+     * the primary, so a client always reads its own writes.
+     */
+    static final String CONSISTENCY_TOKEN = "Consistency-Token";
+    static final String PREFER = "Prefer";
+    static final String PREFERENCE_APPLIED = "Preference-Applied";
+    static final String RESPOND_ASYNC = "respond-async";
+    private static final String CREATED_ORDER_VERSION = "0";
+
     private final OrderService orderService;
+    private final OrderSubmissionQueue orderSubmissionQueue;
     private final OrderApiMapper orderApiMapper;
+    private final IdempotencyKeyStore idempotencyKeyStore;
+    private final ObjectMapper objectMapper;
+    private final OrderStatusBroadcaster orderStatusBroadcaster;
+    private final OrderBatchProperties orderBatchProperties;
+    private final OrderExportProperties orderExportProperties;
 
+    /**
+     * With the {@value #RESPOND_ASYNC} preference, e.g. {@code Prefer: respond-async, wait=10}, the order is only
+     * queued and answered with 202 Accepted. A queued order is remembered under the {@code Idempotency-Key} as well,
+     * separately from synchronously created ones, so a retry is answered with the location of the queued order.
+     */
     @PostMapping
-    public ResponseEntity<Void> createOrder(@RequestBody @Valid CreateOrderRequest createOrderRequest) {
+    public ResponseEntity<Void> createOrder(@RequestBody @Valid CreateOrderRequest createOrderRequest,
+                                            @RequestHeader(name = IDEMPOTENCY_KEY, required = false)
+                                            @Size(max = 200) String idempotencyKey,
+                                            @RequestHeader(name = PREFER, required = false) List<String> preferences) {
         var createOrderDto = orderApiMapper.toCreateOrderDto(createOrderRequest);
-        var orderId = orderService.createOrder(createOrderDto);
+        if (prefersRespondAsync(preferences)) {
+            if (idempotencyKey == null) {
+                var orderId = orderSubmissionQueue.submit(createOrderDto);
+                return ResponseEntity.accepted()
+                        .location(orderLocation(orderId.id()))
+                        .header(PREFERENCE_APPLIED, RESPOND_ASYNC)
+                        .build();
+            }
+            var response = idempotencyKeyStore.execute("submitOrder", idempotencyKey, createOrderRequest,
+                    () -> orderSubmissionQueue.submit(createOrderDto).id().toString());
+            return ResponseEntity.accepted()
+                    .location(orderLocation(UUID.fromString(response.response())))
+                    .header(PREFERENCE_APPLIED, RESPOND_ASYNC)
+                    .header(IDEMPOTENT_REPLAYED, String.valueOf(response.replayed()))
+                    .build();
+        }
+        if (idempotencyKey == null) {
+            var orderId = orderService.createOrder(createOrderDto);
+            return ResponseEntity.created(orderLocation(orderId.id()))
+                    .header(CONSISTENCY_TOKEN, CREATED_ORDER_VERSION)
+                    .build();
+        }
 
-        URI location = ServletUriComponentsBuilder.fromCurrentRequest()
-                .path("/{id}")
-                .buildAndExpand(orderId.id())
-                .toUri();
+        var response = idempotencyKeyStore.execute("createOrder", idempotencyKey, createOrderRequest,
+                () -> orderService.createOrder(createOrderDto).id().toString());
+        return ResponseEntity.created(orderLocation(UUID.fromString(response.response())))
+                .header(IDEMPOTENT_REPLAYED, String.valueOf(response.replayed()))
+                .header(CONSISTENCY_TOKEN, CREATED_ORDER_VERSION)
+                .build();
+    }
+
+    /**
+     * Every entry is created in one transaction per shard, so batches larger than
+     * {@code kopytka.order-batch.max-size} are rejected as a whole.
+     */
+    @PostMapping("/batch")
+    public List<CreateOrderResultDto> createOrders(@RequestBody List<CreateOrderRequest> createOrderRequests) {
+        if (createOrderRequests.size() > orderBatchProperties.maxSize()) {
+            throw new OrderBatchTooLargeException(createOrderRequests.size(), orderBatchProperties.maxSize());
+        }
+        var createOrderDtos = orderApiMapper.toCreateOrderDtos(createOrderRequests);
+        return orderService.createOrders(createOrderDtos);
+    }
+
+    @PostMapping("/{id}/pay")
+    public ResponseEntity<Void> payOrder(@PathVariable UUID id,
+                                         @RequestHeader(name = IDEMPOTENCY_KEY, required = false)
+                                         @Size(max = 200) String idempotencyKey) {
+        var orderId = new OrderId(id);
+        if (idempotencyKey == null) {
+            var version = orderService.pay(orderId);
+            return ResponseEntity.noContent()
+                    .header(CONSISTENCY_TOKEN, String.valueOf(version))
+                    .build();
+        }
+
+        var response = idempotencyKeyStore.execute("pay", idempotencyKey, id,
+                () -> String.valueOf(orderService.pay(orderId)));
+        var noContent = ResponseEntity.noContent()
+                .header(IDEMPOTENT_REPLAYED, String.valueOf(response.replayed()));
+        if (!response.response().isEmpty()) {
+            noContent.header(CONSISTENCY_TOKEN, response.response());
+        }
+        return noContent.build();
+    }
+
+    @PostMapping(path = "/payments", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public List<PaymentResultDto> payOrders(InputStream body) throws IOException {
+        try (var parser = objectMapper.createParser(body)) {
+            return orderService.payOrders(new JsonOrderIdIterator(parser));
+        }
+    }
 
-        return ResponseEntity.created(location).build();
+    /**
+     * The stream may outlive the default async request timeout, so it gets its own
+     * {@code kopytka.order-export.timeout}.
+     */
+    @GetMapping(path = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportOrders(@RequestParam(required = false) Instant from,
+                                                              @RequestParam(required = false) Instant to,
+                                                              @RequestParam(required = false) OrderStatus status,
+                                                              HttpServletRequest request) {
+        WebAsyncUtils.getAsyncManager(request).getAsyncWebRequest().setTimeout(orderExportProperties.timeout().toMillis());
+        StreamingResponseBody body = outputStream -> {
+            try {
+                orderService.exportOrders(from, to, status, order -> writeLine(outputStream, order));
+            } catch (UncheckedIOException ex) {
+                log.debug("Order export aborted, client disconnected", ex);
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 
+    /**
+     * With {@code If-None-Match} the current version is looked up first, so an unchanged order is answered
+     * with 304 without loading or serializing it. The lookup is served by a replica, which defers to the primary
+     * when it holds a version older than the {@value #CONSISTENCY_TOKEN}, so the shortcut never answers with an
+     * entity tag older than the client's own write.
+     */
     @GetMapping("/{id}")
-    public OrderDto getOrder(@PathVariable UUID id) {
-        return orderService.getOrderById(new OrderId(id));
+    public ResponseEntity<OrderDto> getOrder(@PathVariable UUID id,
+                                             @RequestHeader(name = CONSISTENCY_TOKEN, required = false) Integer minVersion,
+                                             WebRequest webRequest) {
+        var orderId = new OrderId(id);
+        if (webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            var eTag = orderService.findOrderVersion(orderId, minVersion).map(version -> VersionETag.of(id, version));
+            if (eTag.isPresent() && webRequest.checkNotModified(eTag.get())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag.get()).build();
+            }
+        }
+
+        var order = orderService.getVersionedOrderById(orderId, minVersion);
+        if (order.version() == null) {
+            return ResponseEntity.ok(order.dto());
+        }
+        return ResponseEntity.ok()
+                .eTag(VersionETag.of(id, order.version()))
+                .body(order.dto());
+    }
+
+    /**
+     * Streams the current status followed by every committed status change, until the order reaches a final
+     * status or the stream stays idle for {@code kopytka.order-events.idle-timeout}.
+     */
+    @GetMapping(path = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter orderEvents(@PathVariable UUID id) {
+        var orderId = new OrderId(id);
+        return orderStatusBroadcaster.subscribe(id, () -> orderService.getOrderById(orderId).status());
+    }
+
+    private void writeLine(OutputStream outputStream, OrderDto order) {
+        try {
+            outputStream.write(objectMapper.writeValueAsBytes(order));
+            outputStream.write('\n');
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Preferences are comma separated and may carry a value and parameters, e.g. {@code respond-async; x=1}.
+     */
+    private static boolean prefersRespondAsync(List<String> preferences) {
+        if (preferences == null) {
+            return false;
+        }
+        return preferences.stream()
+                .flatMap(header -> Arrays.stream(header.split(",")))
+                .map(preference -> preference.split("[;=]", 2)[0].trim())
+                .anyMatch(RESPOND_ASYNC::equalsIgnoreCase);
+    }
+
+    private static URI orderLocation(UUID orderId) {
+        return ServletUriComponentsBuilder.fromCurrentRequest()
+                .path("/{id}")
+                .buildAndExpand(orderId)
+                .toUri();
     }
 }
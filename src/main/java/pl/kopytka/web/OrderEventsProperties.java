@@ -0,0 +1,13 @@
+package pl.kopytka.web;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties("kopytka.order-events")
+record OrderEventsProperties(
+        @DefaultValue("16") int subscriberBufferSize,
+        @DefaultValue("60s") Duration idleTimeout,
+        @DefaultValue("30m") Duration maxConnectionTime) {
+}
@@ -0,0 +1,11 @@
+package pl.kopytka.web;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties("kopytka.order-export")
+record OrderExportProperties(
+        @DefaultValue("30m") Duration timeout) {
+}
@@ -0,0 +1,152 @@
+package pl.kopytka.web;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import pl.kopytka.application.dto.OrderStatusChangedEvent;
+import pl.kopytka.domain.OrderStatus;
+
+import java.io.IOException;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Fans committed order status changes out to SSE subscribers of that order. Publishers only offer events to
+ * bounded per-subscriber buffers; each subscriber has its own virtual thread writing to the connection, so a
+ * slow client never blocks the committing thread. A subscriber whose buffer overflows is disconnected and is
+ * expected to reconnect, receiving the current status first.
+ */
+@Slf4j
+@Component
+class OrderStatusBroadcaster {
+
+    private static final Set<OrderStatus> FINAL_STATUSES = EnumSet.of(OrderStatus.PAID, OrderStatus.REJECTED);
+
+    private final OrderEventsProperties properties;
+    private final Thread.Builder senderThreads = Thread.ofVirtual().name("order-events-", 0);
+    private final Map<UUID, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+
+    OrderStatusBroadcaster(OrderEventsProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        Gauge.builder("kopytka.order.events.subscribers", subscriberCount, AtomicInteger::get)
+                .description("Open order status event streams")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Registers before reading the current status, so a change committed in between is delivered as an event
+     * rather than lost. The current status is sent first.
+     */
+    SseEmitter subscribe(UUID orderId, Supplier<OrderStatus> currentStatus) {
+        var subscriber = new Subscriber(orderId);
+        subscribers.computeIfAbsent(orderId, id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        subscriberCount.incrementAndGet();
+        try {
+            subscriber.offer(new OrderStatusChangedEvent(orderId, currentStatus.get()));
+        } catch (RuntimeException ex) {
+            unsubscribe(subscriber);
+            throw ex;
+        }
+        subscriber.start();
+        return subscriber.emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    void onStatusChanged(OrderStatusChangedEvent event) {
+        var orderSubscribers = subscribers.get(event.orderId());
+        if (orderSubscribers != null) {
+            orderSubscribers.forEach(subscriber -> subscriber.offer(event));
+        }
+    }
+
+    @PreDestroy
+    void closeAll() {
+        subscribers.values().forEach(orderSubscribers -> orderSubscribers.forEach(Subscriber::close));
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.orderId, (id, orderSubscribers) -> {
+            if (orderSubscribers.remove(subscriber)) {
+                subscriberCount.decrementAndGet();
+            }
+            return orderSubscribers.isEmpty() ? null : orderSubscribers;
+        });
+    }
+
+    private final class Subscriber {
+
+        private final UUID orderId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<OrderStatusChangedEvent> buffer;
+        private volatile Thread sender;
+        private volatile boolean closed;
+
+        private Subscriber(UUID orderId) {
+            this.orderId = orderId;
+            this.emitter = new SseEmitter(properties.maxConnectionTime().toMillis());
+            this.buffer = new ArrayBlockingQueue<>(properties.subscriberBufferSize());
+            emitter.onCompletion(this::close);
+            emitter.onTimeout(this::close);
+            emitter.onError(error -> close());
+        }
+
+        private void offer(OrderStatusChangedEvent event) {
+            if (!buffer.offer(event)) {
+                log.debug("Disconnecting slow subscriber of order {}", orderId);
+                close();
+            }
+        }
+
+        private void start() {
+            sender = senderThreads.start(this::send);
+            if (closed) {
+                sender.interrupt();
+            }
+        }
+
+        private void send() {
+            try {
+                OrderStatusChangedEvent event;
+                do {
+                    event = buffer.poll(properties.idleTimeout().toMillis(), TimeUnit.MILLISECONDS);
+                    if (event == null || closed) {
+                        break;
+                    }
+                    emitter.send(SseEmitter.event()
+                            .name("status")
+                            .id(event.status().name())
+                            .data(event));
+                } while (!FINAL_STATUSES.contains(event.status()));
+                emitter.complete();
+            } catch (InterruptedException ex) {
+                emitter.complete();
+            } catch (IOException | IllegalStateException ex) {
+                log.debug("Order {} event stream closed by client", orderId, ex);
+            } finally {
+                close();
+            }
+        }
+
+        private void close() {
+            closed = true;
+            unsubscribe(this);
+            var thread = sender;
+            if (thread != null && thread != Thread.currentThread()) {
+                thread.interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package pl.kopytka.web;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import pl.kopytka.infrastructure.SqlStatementCounter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Records the number of SQL statements per request as {@code kopytka.http.sql.statements} and logs requests
+ * slower than the configured threshold. Asynchronous requests, i.e. the order export and event streams, are skipped:
+ * their work runs on other threads after the first dispatch returns, so neither the thread-bound statement count
+ * nor the dispatch time describes them, and long-lived streams would all be logged as slow.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+class RequestMetricsFilter extends OncePerRequestFilter {
+
+    private final long slowRequestThresholdNanos;
+    private final Meter.MeterProvider<DistributionSummary> sqlStatements;
+
+    RequestMetricsFilter(@Value("${kopytka.request-metrics.slow-request-threshold:500ms}") Duration slowRequestThreshold,
+                         MeterRegistry meterRegistry) {
+        this.slowRequestThresholdNanos = slowRequestThreshold.toNanos();
+        this.sqlStatements = DistributionSummary.builder("kopytka.http.sql.statements")
+                .description("SQL statements prepared while handling a request")
+                .withRegistry(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        SqlStatementCounter.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            int statements = SqlStatementCounter.stop();
+            if (!request.isAsyncStarted()) {
+                record(request, response, System.nanoTime() - start, statements);
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, HttpServletResponse response, long elapsed, int statements) {
+        var uri = uriPattern(request);
+        sqlStatements.withTags("method", request.getMethod(), "uri", uri).record(statements);
+        if (elapsed > slowRequestThresholdNanos) {
+            log.warn("Slow request {} {} ({}): {} ms, status {}, {} SQL statements", request.getMethod(), uri,
+                    request.getRequestURI(), elapsed / 1_000_000, response.getStatus(), statements);
+        }
+    }
+
+    private static String uriPattern(HttpServletRequest request) {
+        var pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern == null ? "UNKNOWN" : pattern.toString();
+    }
+}
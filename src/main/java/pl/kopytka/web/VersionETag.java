@@ -0,0 +1,17 @@
+package pl.kopytka.web;
+
+import java.util.UUID;
+
+/**
+ * Weak entity tags built from the resource id and its {@code @Version}. They change whenever the row is updated,
+ * so they are only as precise as the version column, hence weak.
+ */
+final class VersionETag {
+
+    private VersionETag() {
+    }
+
+    static String of(UUID id, int version) {
+        return "W/\"" + id + "-" + version + "\"";
+    }
+}
@@ -0,0 +1,18 @@
+package pl.kopytka.web.exception;
+
+import pl.kopytka.application.dto.PaymentResultDto;
+
+import java.time.Instant;
+import java.util.List;
+
+public record PaymentsErrorResponse(
+        String message,
+        Instant timestamp,
+        String path,
+        List<PaymentResultDto> results
+) {
+
+    public PaymentsErrorResponse(String message, String path, List<PaymentResultDto> results) {
+        this(message, Instant.now(), path, results);
+    }
+}
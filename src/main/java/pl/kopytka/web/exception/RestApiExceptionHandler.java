@@ -1,17 +1,27 @@
 package pl.kopytka.web.exception;
 
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.method.ParameterErrors;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.HandlerMethodValidationException;
 import pl.kopytka.application.exception.CustomerAlreadyExistsException;
 import pl.kopytka.application.exception.CustomerNotFoundException;
+import pl.kopytka.application.exception.IdempotencyKeyReusedException;
+import pl.kopytka.application.exception.InvalidCustomerImportException;
+import pl.kopytka.application.exception.InvalidOrderIdListException;
+import pl.kopytka.application.exception.InvalidPageCursorException;
 import pl.kopytka.application.exception.OrderNotFoundException;
+import pl.kopytka.application.exception.OrderPaymentsInterruptedException;
+import pl.kopytka.application.exception.OrderQueueFullException;
 import pl.kopytka.domain.OrderDomainException;
+import pl.kopytka.web.OrderBatchTooLargeException;
 
 import java.util.stream.Collectors;
 
@@ -43,6 +53,51 @@ public class RestApiExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
     }
 
+    @ExceptionHandler(value = IdempotencyKeyReusedException.class)
+    public ResponseEntity<ErrorResponse> handleException(IdempotencyKeyReusedException ex, HttpServletRequest request) {
+        ErrorResponse errorResponse = new ErrorResponse(ex.getMessage(), request.getRequestURI());
+        return new ResponseEntity<>(errorResponse, HttpStatus.UNPROCESSABLE_ENTITY);
+    }
+
+    @ExceptionHandler(value = InvalidOrderIdListException.class)
+    public ResponseEntity<ErrorResponse> handleException(InvalidOrderIdListException ex, HttpServletRequest request) {
+        ErrorResponse errorResponse = new ErrorResponse(ex.getMessage(), request.getRequestURI());
+        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(value = OrderPaymentsInterruptedException.class)
+    public ResponseEntity<PaymentsErrorResponse> handleException(OrderPaymentsInterruptedException ex,
+                                                                 HttpServletRequest request) {
+        var errorResponse = new PaymentsErrorResponse(ex.getMessage(), request.getRequestURI(), ex.getResults());
+        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(value = InvalidCustomerImportException.class)
+    public ResponseEntity<ErrorResponse> handleException(InvalidCustomerImportException ex, HttpServletRequest request) {
+        ErrorResponse errorResponse = new ErrorResponse(ex.getMessage(), request.getRequestURI());
+        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(value = InvalidPageCursorException.class)
+    public ResponseEntity<ErrorResponse> handleException(InvalidPageCursorException ex, HttpServletRequest request) {
+        ErrorResponse errorResponse = new ErrorResponse(ex.getMessage(), request.getRequestURI());
+        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(value = OrderBatchTooLargeException.class)
+    public ResponseEntity<ErrorResponse> handleException(OrderBatchTooLargeException ex, HttpServletRequest request) {
+        ErrorResponse errorResponse = new ErrorResponse(ex.getMessage(), request.getRequestURI());
+        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(value = OrderQueueFullException.class)
+    public ResponseEntity<ErrorResponse> handleException(OrderQueueFullException ex, HttpServletRequest request) {
+        ErrorResponse errorResponse = new ErrorResponse(ex.getMessage(), request.getRequestURI());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(errorResponse);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ResponseEntity<ErrorResponse> handleValidationExceptions(MethodArgumentNotValidException ex, HttpServletRequest request) {
@@ -53,5 +108,18 @@ public class RestApiExceptionHandler {
         ErrorResponse errorResponse = new ErrorResponse(aggregatedErrors, request.getRequestURI());
         return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
     }
+
+    @ExceptionHandler(HandlerMethodValidationException.class)
+    public ResponseEntity<ErrorResponse> handleValidationExceptions(HandlerMethodValidationException ex, HttpServletRequest request) {
+        String aggregatedErrors = ex.getParameterValidationResults().stream()
+                .flatMap(result -> result instanceof ParameterErrors errors
+                        ? errors.getFieldErrors().stream().map(error -> error.getField() + ": " + error.getDefaultMessage())
+                        : result.getResolvableErrors().stream()
+                        .map(error -> result.getMethodParameter().getParameterName() + ": " + error.getDefaultMessage()))
+                .collect(Collectors.joining(", "));
+
+        ErrorResponse errorResponse = new ErrorResponse(aggregatedErrors, request.getRequestURI());
+        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+    }
 }
 
@@ -6,16 +6,34 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import pl.kopytka.application.CustomerRepository;
 import pl.kopytka.application.CustomerService;
+import pl.kopytka.application.OrderService;
 import pl.kopytka.application.dto.CreateCustomerDto;
 import pl.kopytka.application.dto.CustomerDto;
+import pl.kopytka.application.dto.CustomerImportErrorDto;
+import pl.kopytka.application.dto.CustomerImportReportDto;
+import pl.kopytka.application.dto.CustomerOrderStatsDto;
+import pl.kopytka.application.dto.OrderSummaryDto;
+import pl.kopytka.application.dto.OrderSummaryPageDto;
+import pl.kopytka.domain.OrderStatus;
 import pl.kopytka.web.exception.ErrorResponse;
 
+import java.math.BigDecimal;
+import java.util.Comparator;
+import java.util.List;
 import java.util.UUID;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static pl.kopytka.application.OrderFixtures.createOrderDto;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 class CustomerAcceptanceTest {
@@ -29,6 +47,12 @@ class CustomerAcceptanceTest {
     @Autowired
     private CustomerService customerService;
 
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
     @Test
     @DisplayName("""
             given existing Customer id,
@@ -54,6 +78,29 @@ class CustomerAcceptanceTest {
                 .hasFieldOrPropertyWithValue("email", createCustomerDto.email());
     }
 
+    @Test
+    @DisplayName("""
+            given Customer fetched with its ETag,
+            when Customer is requested with If-None-Match,
+            then HTTP 304 status received without body""")
+    void givenCustomerETag_whenRequestedWithIfNoneMatch_thenHttp304() {
+        //given
+        var customerId = customerService.addCustomer(new CreateCustomerDto("Mariolka", "Kiepska", "mariolka.etag@gemail.com")).id();
+        var eTag = restTemplate.getForEntity(getBaseCustomersUrl() + "/" + customerId, CustomerDto.class).getHeaders().getETag();
+        var headers = new HttpHeaders();
+        headers.setIfNoneMatch(eTag);
+
+        //when
+        var response = restTemplate.exchange(getBaseCustomersUrl() + "/" + customerId, HttpMethod.GET,
+                new HttpEntity<>(headers), String.class);
+
+        //then
+        assertThat(eTag).isEqualTo("W/\"" + customerId + "-0\"");
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(response.getHeaders().getETag()).isEqualTo(eTag);
+        assertThat(response.getBody()).isNull();
+    }
+
     @Test
     @DisplayName("""
             given non-existing Customer id,
@@ -125,6 +172,213 @@ class CustomerAcceptanceTest {
                 .isNotNull();
     }
 
+    @Test
+    @DisplayName("""
+            given Customer with several orders,
+            when pages of orders are requested with returned cursor,
+            then all orders are returned newest first without duplicates and HTTP 200 status""")
+    void givenCustomerWithOrders_whenPagesAreRequested_thenAllOrdersReturnedNewestFirst() {
+        //given
+        var customerId = customerService.addCustomer(new CreateCustomerDto("Halina", "Kiepska", "halinka@gemail.com")).id();
+        var orderIds = IntStream.range(0, 5)
+                .mapToObj(i -> orderService.createOrder(createOrderDto(customerId)).id())
+                .toList();
+
+        //when
+        var firstPage = restTemplate.getForEntity(getBaseCustomersUrl() + "/" + customerId + "/orders?size=2", OrderSummaryPageDto.class);
+        var secondPage = restTemplate.getForEntity(getBaseCustomersUrl() + "/" + customerId + "/orders?size=2&cursor="
+                + firstPage.getBody().nextCursor(), OrderSummaryPageDto.class);
+        var lastPage = restTemplate.getForEntity(getBaseCustomersUrl() + "/" + customerId + "/orders?size=2&cursor="
+                + secondPage.getBody().nextCursor(), OrderSummaryPageDto.class);
+
+        //then
+        assertThat(List.of(firstPage, secondPage, lastPage))
+                .allSatisfy(page -> assertThat(page.getStatusCode()).isEqualTo(HttpStatus.OK));
+        assertThat(lastPage.getBody().nextCursor()).isNull();
+
+        var returnedOrders = Stream.of(firstPage, secondPage, lastPage)
+                .flatMap(page -> page.getBody().orders().stream())
+                .toList();
+        assertThat(returnedOrders)
+                .extracting(OrderSummaryDto::id)
+                .containsExactlyInAnyOrderElementsOf(orderIds);
+        assertThat(returnedOrders)
+                .extracting(OrderSummaryDto::createAt)
+                .isSortedAccordingTo(Comparator.reverseOrder());
+        assertThat(returnedOrders)
+                .allSatisfy(order -> assertThat(order)
+                        .hasFieldOrPropertyWithValue("status", OrderStatus.PENDING)
+                        .hasFieldOrPropertyWithValue("price", new BigDecimal("20.00")));
+    }
+
+    @Test
+    @DisplayName("""
+            given malformed page cursor,
+            when Customer orders are requested,
+            then HTTP 400 status received""")
+    void givenMalformedCursor_whenCustomerOrdersAreRequested_thenHttp400() {
+        //when
+        var response = restTemplate.getForEntity(getBaseCustomersUrl() + "/" + UUID.randomUUID() + "/orders?cursor=abc",
+                ErrorResponse.class);
+
+        //then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(response.getBody())
+                .isNotNull()
+                .extracting("message")
+                .asString()
+                .contains("Invalid page cursor");
+    }
+
+    @Test
+    @DisplayName("""
+            given Customer with created and paid orders,
+            when order stats are requested,
+            then precomputed totals and HTTP 200 status received""")
+    void givenCustomerWithOrders_whenStatsAreRequested_thenTotalsReturnedAndHttp200() {
+        //given
+        var customerId = customerService.addCustomer(new CreateCustomerDto("Paweł", "Kiepski", "pawel.stats@gemail.com")).id();
+        var paidOrderId = orderService.createOrder(createOrderDto(customerId));
+        orderService.createOrder(createOrderDto(customerId));
+        orderService.pay(paidOrderId);
+
+        //when
+        var response = restTemplate.getForEntity(getBaseCustomersUrl() + "/" + customerId + "/stats", CustomerOrderStatsDto.class);
+
+        //then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody())
+                .isNotNull()
+                .hasNoNullFieldsOrProperties()
+                .hasFieldOrPropertyWithValue("customerId", customerId)
+                .hasFieldOrPropertyWithValue("orderCount", 2L)
+                .hasFieldOrPropertyWithValue("paidOrderCount", 1L);
+        assertThat(response.getBody().paidRevenue()).isEqualByComparingTo("20.00");
+    }
+
+    @Test
+    @DisplayName("""
+            given non-existing Customer id,
+            when order stats are requested,
+            then HTTP 404 status received""")
+    void givenNonExistingCustomerId_whenStatsAreRequested_thenHttp404() {
+        //when
+        var response = restTemplate.getForEntity(getBaseCustomersUrl() + "/" + UUID.randomUUID() + "/stats", ErrorResponse.class);
+
+        //then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    @Test
+    @DisplayName("""
+            given CSV file with valid, duplicated, existing and malformed customers,
+            when import request is sent,
+            then valid customers are created and rejected rows are reported""")
+    void givenCsvWithInvalidRows_whenImportRequestIsSent_thenValidCustomersCreatedAndErrorsReported() {
+        //given
+        customerService.addCustomer(new CreateCustomerDto("Marian", "Paździoch", "marian.import@gmail.com"));
+        var csv = """
+                email,firstName,lastName
+                halina.import@gmail.com,Halina,Kiepska
+                "boczek.import@gmail.com","Arnold \"\"Boczek\"\"",Boczek
+                halina.import@gmail.com,Halina,Kiepska
+                marian.import@gmail.com,Marian,Paździoch
+                not-an-email,Walduś,Kiepski
+                "unterminated,Paweł,Kiepski
+                """;
+
+        //when
+        var response = restTemplate.postForEntity(getBaseCustomersUrl() + "/import",
+                new HttpEntity<>(csv, contentType("text/csv")), CustomerImportReportDto.class);
+
+        //then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody().imported()).isEqualTo(2);
+        assertThat(response.getBody().errors())
+                .extracting(CustomerImportErrorDto::row)
+                .containsExactly(4, 5, 6, 7);
+        assertThat(response.getBody().errors().get(0).errorMessage()).isEqualTo("Duplicate email in import");
+        assertThat(response.getBody().errors().get(1).errorMessage()).contains("already exists");
+        assertThat(response.getBody().errors().get(2).errorMessage()).startsWith("email:");
+        assertThat(customerService.getCustomer(customerRepository.findAll().stream()
+                .filter(customer -> customer.getEmail().equals("boczek.import@gmail.com"))
+                .findFirst().orElseThrow().getCustomerId().id()).firstName()).isEqualTo("Arnold \"Boczek\"");
+    }
+
+    @Test
+    @DisplayName("""
+            given CSV file with a row rejected by the database for other reason than an existing email,
+            when import request is sent,
+            then the row is reported as invalid instead of already existing""")
+    void givenCsvWithRowRejectedByDatabase_whenImportRequestIsSent_thenRowReportedAsInvalid() {
+        //given
+        var csv = """
+                email,firstName,lastName
+                ferdek.invalid.import@gmail.com,Ferdynand,Kiepski
+                boczek.invalid.import@gmail.com,%s,Boczek
+                """.formatted("Arnold".repeat(50));
+
+        //when
+        var response = restTemplate.postForEntity(getBaseCustomersUrl() + "/import",
+                new HttpEntity<>(csv, contentType("text/csv")), CustomerImportReportDto.class);
+
+        //then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody().imported()).isEqualTo(1);
+        assertThat(response.getBody().errors())
+                .singleElement()
+                .satisfies(error -> {
+                    assertThat(error.row()).isEqualTo(3);
+                    assertThat(error.errorMessage()).isEqualTo("Invalid customer data");
+                });
+    }
+
+    @Test
+    @DisplayName("""
+            given NDJSON file with customers,
+            when import request is sent,
+            then customers are created and malformed lines are reported""")
+    void givenNdjsonFile_whenImportRequestIsSent_thenCustomersCreatedAndMalformedLinesReported() {
+        //given
+        var ndjson = """
+                {"firstName":"Ferdynand","lastName":"Kiepski","email":"ferdek.import@gmail.com"}
+                {"firstName":"Mariolka",
+                {"firstName":"Mariolka","lastName":"Kiepska","email":"mariolka.import@gmail.com"}
+                """;
+
+        //when
+        var response = restTemplate.postForEntity(getBaseCustomersUrl() + "/import",
+                new HttpEntity<>(ndjson, contentType(MediaType.APPLICATION_NDJSON_VALUE)), CustomerImportReportDto.class);
+
+        //then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody().imported()).isEqualTo(2);
+        assertThat(response.getBody().errors())
+                .singleElement()
+                .extracting(CustomerImportErrorDto::row)
+                .isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("""
+            given CSV file without required header,
+            when import request is sent,
+            then HTTP 400 status received""")
+    void givenCsvWithoutHeader_whenImportRequestIsSent_thenHttp400() {
+        //when
+        var response = restTemplate.postForEntity(getBaseCustomersUrl() + "/import",
+                new HttpEntity<>("jan@gmail.com,Jan,Kowalski\n", contentType("text/csv")), ErrorResponse.class);
+
+        //then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    private HttpHeaders contentType(String mediaType) {
+        var headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType(mediaType));
+        return headers;
+    }
+
     private String getBaseCustomersUrl() {
         return "http://localhost:" + port + "/api/customers";
     }
@@ -0,0 +1,194 @@
+package pl.kopytka.acceptance;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import pl.kopytka.application.CustomerRepository;
+import pl.kopytka.application.OrderRepository;
+import pl.kopytka.domain.Customer;
+import pl.kopytka.domain.CustomerId;
+import pl.kopytka.domain.OrderId;
+import pl.kopytka.domain.OrderStatus;
+import pl.kopytka.web.exception.ErrorResponse;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static pl.kopytka.application.OrderFixtures.createOrderDto;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class IdempotencyAcceptanceTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Test
+    @DisplayName("""
+            given order request retried with the same Idempotency-Key,
+            when request is sent again,
+            then the original order is returned and no duplicate is created""")
+    void givenRetriedOrderRequestWithSameKey_whenRequestIsSentAgain_thenOriginalOrderReturned() {
+        // given
+        var customerId = createCustomer("mariolka.idempotency@gmail.com");
+        var createOrderDto = createOrderDto(customerId.id());
+        var key = UUID.randomUUID().toString();
+        var first = restTemplate.postForEntity(getBaseUrl(), new HttpEntity<>(createOrderDto, idempotencyKey(key)), Void.class);
+
+        // when
+        var retry = restTemplate.postForEntity(getBaseUrl(), new HttpEntity<>(createOrderDto, idempotencyKey(key)), Void.class);
+
+        // then
+        assertThat(first.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(first.getHeaders().getFirst("Idempotent-Replayed")).isEqualTo("false");
+        assertThat(retry.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(retry.getHeaders().getFirst("Idempotent-Replayed")).isEqualTo("true");
+        assertThat(retry.getHeaders().getLocation()).isEqualTo(first.getHeaders().getLocation());
+        assertThat(countOrders(customerId)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("""
+            given concurrent order requests with the same Idempotency-Key,
+            when requests are sent,
+            then exactly one order is created and all requests return it""")
+    void givenConcurrentOrderRequestsWithSameKey_whenRequestsAreSent_thenExactlyOneOrderCreated() throws Exception {
+        // given
+        var customerId = createCustomer("walduś.idempotency@gmail.com");
+        var request = new HttpEntity<>(createOrderDto(customerId.id()), idempotencyKey(UUID.randomUUID().toString()));
+        Callable<ResponseEntity<Void>> send = () -> restTemplate.postForEntity(getBaseUrl(), request, Void.class);
+
+        // when
+        var responses = new ArrayList<Future<ResponseEntity<Void>>>();
+        try (var executor = Executors.newFixedThreadPool(16)) {
+            for (int i = 0; i < 32; i++) {
+                responses.add(executor.submit(send));
+            }
+        }
+
+        // then
+        var locations = new ArrayList<URI>();
+        for (var response : responses) {
+            assertThat(response.get().getStatusCode()).isEqualTo(HttpStatus.CREATED);
+            locations.add(response.get().getHeaders().getLocation());
+        }
+        assertThat(locations).containsOnly(locations.getFirst());
+        assertThat(countOrders(customerId)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("""
+            given queued order request retried with the same Idempotency-Key,
+            when request is sent again with respond-async preference,
+            then the location of the queued order is returned and no duplicate is created""")
+    void givenRetriedQueuedOrderRequestWithSameKey_whenRequestIsSentAgain_thenQueuedOrderReturned() {
+        // given
+        var customerId = createCustomer("ferdek.idempotency@gmail.com");
+        var createOrderDto = createOrderDto(customerId.id());
+        var headers = idempotencyKey(UUID.randomUUID().toString());
+        headers.set("Prefer", "respond-async");
+        var first = restTemplate.postForEntity(getBaseUrl(), new HttpEntity<>(createOrderDto, headers), Void.class);
+
+        // when
+        var retry = restTemplate.postForEntity(getBaseUrl(), new HttpEntity<>(createOrderDto, headers), Void.class);
+
+        // then
+        assertThat(first.getStatusCode()).isEqualTo(HttpStatus.ACCEPTED);
+        assertThat(first.getHeaders().getFirst("Idempotent-Replayed")).isEqualTo("false");
+        assertThat(retry.getStatusCode()).isEqualTo(HttpStatus.ACCEPTED);
+        assertThat(retry.getHeaders().getFirst("Idempotent-Replayed")).isEqualTo("true");
+        assertThat(retry.getHeaders().getLocation()).isEqualTo(first.getHeaders().getLocation());
+        await().atMost(Duration.ofSeconds(5))
+                .until(() -> restTemplate.getForEntity(first.getHeaders().getLocation(), String.class).getStatusCode(),
+                        HttpStatus.OK::equals);
+        assertThat(countOrders(customerId)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("""
+            given Idempotency-Key already used for a different order,
+            when request is sent,
+            then HTTP 422 status received""")
+    void givenKeyUsedForDifferentOrder_whenRequestIsSent_thenHttp422() {
+        // given
+        var customerId = createCustomer("pazdzioch.idempotency@gmail.com");
+        var key = UUID.randomUUID().toString();
+        restTemplate.postForEntity(getBaseUrl(), new HttpEntity<>(createOrderDto(customerId.id()), idempotencyKey(key)), Void.class);
+
+        // when
+        var response = restTemplate.postForEntity(getBaseUrl(),
+                new HttpEntity<>(createOrderDto(customerId.id()), idempotencyKey(key)), ErrorResponse.class);
+
+        // then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY);
+        assertThat(countOrders(customerId)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("""
+            given payment retried with the same Idempotency-Key,
+            when request is sent again,
+            then HTTP 204 status received for both requests and order is paid""")
+    void givenRetriedPaymentWithSameKey_whenRequestIsSentAgain_thenHttp204() {
+        // given
+        var customerId = createCustomer("boczek.idempotency@gmail.com");
+        var created = restTemplate.postForEntity(getBaseUrl(), createOrderDto(customerId.id()), Void.class);
+        var payUrl = created.getHeaders().getLocation() + "/pay";
+        var key = UUID.randomUUID().toString();
+        var first = restTemplate.postForEntity(payUrl, new HttpEntity<>(idempotencyKey(key)), Void.class);
+
+        // when
+        var retry = restTemplate.postForEntity(payUrl, new HttpEntity<>(idempotencyKey(key)), Void.class);
+        var withoutKey = restTemplate.postForEntity(payUrl, null, ErrorResponse.class);
+
+        // then
+        assertThat(first.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+        assertThat(retry.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+        assertThat(retry.getHeaders().getFirst("Idempotent-Replayed")).isEqualTo("true");
+        assertThat(withoutKey.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        var orderId = UUID.fromString(created.getHeaders().getLocation().getPath().replaceAll(".*/", ""));
+        assertThat(orderRepository.findById(new OrderId(orderId)).orElseThrow().getStatus()).isEqualTo(OrderStatus.PAID);
+    }
+
+    private CustomerId createCustomer(String email) {
+        return customerRepository.save(new Customer("Mariolka", "Kiepska", email)).getCustomerId();
+    }
+
+    private long countOrders(CustomerId customerId) {
+        return orderRepository.findAll().stream()
+                .filter(order -> order.getCustomer().getCustomerId().equals(customerId))
+                .count();
+    }
+
+    private HttpHeaders idempotencyKey(String key) {
+        var headers = new HttpHeaders();
+        headers.set("Idempotency-Key", key);
+        return headers;
+    }
+
+    private String getBaseUrl() {
+        return "http://localhost:" + port + "/api/orders";
+    }
+}
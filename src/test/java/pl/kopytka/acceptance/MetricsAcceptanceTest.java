@@ -0,0 +1,85 @@
+package pl.kopytka.acceptance;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import pl.kopytka.application.CustomerService;
+import pl.kopytka.application.dto.CreateCustomerDto;
+import pl.kopytka.application.dto.CreateOrderAddressDto;
+import pl.kopytka.application.dto.CreateOrderDto;
+import pl.kopytka.application.dto.CreateOrderItemDto;
+
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@AutoConfigureObservability(tracing = false)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "spring.jmx.enabled=true")
+class MetricsAcceptanceTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Test
+    @DisplayName("""
+            given created order,
+            when Prometheus endpoint is scraped,
+            then order creation stage timers and SQL statement counts of synchronous requests are exposed""")
+    void givenCreatedOrder_whenPrometheusEndpointIsScraped_thenStageTimersAndStatementCountsExposed() {
+        //given
+        var customerId = customerService.addCustomer(new CreateCustomerDto("Halina", "Kiepska", "halina.metrics@gmail.com"));
+        var items = List.of(new CreateOrderItemDto(UUID.randomUUID(), 2, new BigDecimal("10.00"), new BigDecimal("20.00")));
+        var createOrderDto = new CreateOrderDto(customerId.id(), new BigDecimal("20.00"), items,
+                new CreateOrderAddressDto("Ćwiartki", "51-000", "Wrocław", "3/4"));
+        var created = restTemplate.postForEntity("http://localhost:" + port + "/api/orders", createOrderDto, Void.class);
+        assertThat(created.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        var exported = restTemplate.getForEntity("http://localhost:" + port + "/api/orders/export", String.class);
+        assertThat(exported.getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        //when
+        var response = restTemplate.getForEntity("http://localhost:" + port + "/actuator/prometheus", String.class);
+
+        //then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody())
+                .contains("kopytka_service_stage_seconds_count{operation=\"createOrder\",stage=\"customer\"}")
+                .contains("kopytka_service_stage_seconds_count{operation=\"createOrder\",stage=\"persist\"}")
+                .contains("kopytka_service_stage_seconds_count{operation=\"createOrder\",stage=\"commit\"}")
+                .contains("kopytka_service_stage_seconds_bucket{operation=\"createOrder\",stage=\"domain\"")
+                .contains("kopytka_http_sql_statements_count{method=\"POST\",uri=\"/api/orders\"}")
+                .doesNotContain("kopytka_http_sql_statements_count{method=\"GET\",uri=\"/api/orders/export\"}");
+    }
+
+    @Test
+    @DisplayName("""
+            given customer order stats endpoint,
+            when rebuild is requested over HTTP,
+            then it is rejected, inconsistencies can still be read and rebuild is exposed over JMX""")
+    void givenCustomerOrderStatsEndpoint_whenRebuildIsRequestedOverHttp_thenRejected() throws Exception {
+        //when
+        var rebuild = restTemplate.postForEntity("http://localhost:" + port + "/actuator/customerorderstats", null, String.class);
+
+        //then
+        assertThat(rebuild.getStatusCode().is4xxClientError()).isTrue();
+        assertThat(restTemplate.getForEntity("http://localhost:" + port + "/actuator/customerorderstats", String.class)
+                .getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(ManagementFactory.getPlatformMBeanServer()
+                .queryNames(new ObjectName("org.springframework.boot:type=Endpoint,name=Customerorderstatsrebuild,*"), null))
+                .isNotEmpty();
+    }
+}
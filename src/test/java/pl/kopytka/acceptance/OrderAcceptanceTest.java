@@ -1,6 +1,8 @@
 
 package pl.kopytka.acceptance;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hibernate.Hibernate;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -8,22 +10,36 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.boot.test.web.server.LocalServerPort;
 import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.support.TransactionTemplate;
 import pl.kopytka.application.CustomerRepository;
 import pl.kopytka.application.OrderRepository;
 import pl.kopytka.application.dto.CreateOrderAddressDto;
 import pl.kopytka.application.dto.CreateOrderDto;
 import pl.kopytka.application.dto.CreateOrderItemDto;
+import pl.kopytka.application.dto.CreateOrderResultDto;
+import pl.kopytka.application.dto.OrderDto;
+import pl.kopytka.application.dto.PaymentResultDto;
+import pl.kopytka.application.dto.PaymentResultDto.PaymentStatus;
 import pl.kopytka.domain.*;
 import pl.kopytka.web.exception.ErrorResponse;
+import pl.kopytka.web.exception.PaymentsErrorResponse;
 
 import java.math.BigDecimal;
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 class OrderAcceptanceTest {
@@ -40,6 +56,12 @@ class OrderAcceptanceTest {
     @Autowired
     private OrderRepository orderRepository;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
     @Test
     @DisplayName("""
             given request to add order for existing customer,
@@ -57,9 +79,16 @@ class OrderAcceptanceTest {
         assertThat(response.getHeaders().getLocation()).isNotNull();
         var orderId = response.getHeaders().getLocation().getPath().split("/")[3];
 
-        var savedOrder = orderRepository.findById(new OrderId(UUID.fromString(orderId))).orElseThrow();
+        var savedOrder = transactionTemplate.execute(status -> {
+            var order = orderRepository.findById(new OrderId(UUID.fromString(orderId))).orElseThrow();
+            Hibernate.initialize(order.getAddress());
+            Hibernate.initialize(order.getItems());
+            return order;
+        });
+        assertThat(savedOrder)
+                .extracting("id", "createAt", "lastUpdateAt", "customer", "price", "status", "address", "items")
+                .doesNotContainNull();
         assertThat(savedOrder)
-                .hasNoNullFieldsOrProperties()
                 .hasFieldOrPropertyWithValue("customer.customerId", new CustomerId(createOrderDto.customerId()))
                 .hasFieldOrPropertyWithValue("price", new Money(createOrderDto.price()))
                 .hasFieldOrPropertyWithValue("status", OrderStatus.PENDING)
@@ -105,6 +134,324 @@ class OrderAcceptanceTest {
                 .contains("Could not find customer with customerId");
     }
 
+    @Test
+    @DisplayName("""
+            given request to add order with item total exceeding the supported amount,
+            when request is sent alone and within a batch,
+            then HTTP 400 status received and the batch reports the entry as failed""")
+    void givenOrderWithOverflowingItemTotal_whenRequestIsSent_thenHttp400AndBatchEntryFailed() {
+        // given
+        var customerId = customerRepository.save(new Customer("Marian", "Paździoch", "marian.overflow@gmail.com")).getCustomerId().id();
+        var hugePrice = new BigDecimal("90000000000000000.00");
+        var validOrder = createOrderDto(customerId);
+        var overflowingOrder = new CreateOrderDto(customerId, hugePrice,
+                List.of(new CreateOrderItemDto(UUID.randomUUID(), 2, hugePrice, hugePrice)), validOrder.address());
+
+        // when
+        var response = restTemplate.postForEntity(getBaseUrl(), overflowingOrder, ErrorResponse.class);
+        var batchResponse = restTemplate.postForEntity(getBaseUrl() + "/batch",
+                List.of(overflowingOrder, validOrder), CreateOrderResultDto[].class);
+
+        // then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(response.getBody())
+                .extracting("message")
+                .asString()
+                .contains("Amount is out of range");
+        assertThat(batchResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(batchResponse.getBody()).hasSize(2);
+        assertThat(batchResponse.getBody()[0].errorMessage()).contains("Amount is out of range");
+        assertThat(batchResponse.getBody()[1].orderId()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("""
+            given batch of orders with valid and invalid entries,
+            when request is sent,
+            then save valid orders and return result for every order with HTTP 200 status""")
+    void givenBatchOfOrders_whenRequestIsSent_thenValidOrdersSavedAndResultPerOrderReturned() {
+        // given
+        var customerId = customerRepository.save(new Customer("Arnold", "Boczek", "arnold@gmail.com")).getCustomerId().id();
+        var validOrder = createOrderDto(customerId);
+        var orderForNonExistingCustomer = createOrderDto(UUID.randomUUID());
+        var orderWithWrongPrice = new CreateOrderDto(customerId, new BigDecimal("1.00"),
+                validOrder.basketItems(), validOrder.address());
+        var orderWithoutItems = new CreateOrderDto(customerId, BigDecimal.ZERO, null, validOrder.address());
+
+        // when
+        var response = restTemplate.postForEntity(getBaseUrl() + "/batch",
+                List.of(validOrder, orderForNonExistingCustomer, orderWithWrongPrice, orderWithoutItems),
+                CreateOrderResultDto[].class);
+
+        // then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).hasSize(4);
+        var results = response.getBody();
+
+        assertThat(results[0].index()).isZero();
+        assertThat(results[0].errorMessage()).isNull();
+        assertThat(results[0].orderId()).isNotNull();
+        assertThat(orderRepository.findById(new OrderId(results[0].orderId()))).isPresent();
+
+        assertThat(results[1].orderId()).isNull();
+        assertThat(results[1].errorMessage()).contains("Could not find customer with customerId");
+
+        assertThat(results[2].orderId()).isNull();
+        assertThat(results[2].errorMessage()).contains("is different than order items total");
+
+        assertThat(results[3].orderId()).isNull();
+        assertThat(results[3].errorMessage()).contains("basketItems");
+    }
+
+    @Test
+    @DisplayName("""
+            given batch of orders larger than the configured limit,
+            when request is sent,
+            then HTTP 400 status received and no order is saved""")
+    void givenTooLargeBatchOfOrders_whenRequestIsSent_thenHttp400() {
+        // given
+        var customerId = customerRepository.save(new Customer("Ferdynand", "Kiepski", "ferdek.batch@gmail.com")).getCustomerId().id();
+        var orders = Collections.nCopies(1001, createOrderDto(customerId));
+        var ordersBefore = orderRepository.count();
+
+        // when
+        var response = restTemplate.postForEntity(getBaseUrl() + "/batch", orders, ErrorResponse.class);
+
+        // then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(response.getBody())
+                .extracting("message")
+                .asString()
+                .contains("exceeds the limit of 1000 orders");
+        assertThat(orderRepository.count()).isEqualTo(ordersBefore);
+    }
+
+    @Test
+    @DisplayName("""
+            given asynchronous request to add order for existing customer,
+            when request is sent,
+            then HTTP 202 status received and order becomes PENDING""")
+    void givenAsyncRequestToAddOrder_whenRequestIsSent_thenHttp202AndOrderEventuallyPending() {
+        // given
+        var customerId = customerRepository.save(new Customer("Paździoch", "Marian", "marian.async@gmail.com")).getCustomerId().id();
+        var createOrderDto = createOrderDto(customerId);
+
+        // when
+        var response = restTemplate.exchange(getBaseUrl(), HttpMethod.POST,
+                new HttpEntity<>(createOrderDto, respondAsyncHeaders()), Void.class);
+
+        // then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.ACCEPTED);
+        assertThat(response.getHeaders().getFirst("Preference-Applied")).isEqualTo("respond-async");
+        var location = response.getHeaders().getLocation();
+        assertThat(location).isNotNull();
+
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> {
+            var order = restTemplate.getForEntity(location, OrderDto.class);
+            assertThat(order.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(order.getBody().status()).isEqualTo(OrderStatus.PENDING);
+            assertThat(order.getBody().customerId()).isEqualTo(customerId);
+            assertThat(order.getBody().basketItems()).hasSize(createOrderDto.basketItems().size());
+        });
+    }
+
+    @Test
+    @DisplayName("""
+            given asynchronous request to add order for non-existing customer,
+            when request is sent,
+            then HTTP 202 status received and order becomes REJECTED""")
+    void givenAsyncRequestToAddOrderForNonExistingCustomer_whenRequestIsSent_thenHttp202AndOrderEventuallyRejected() {
+        // given
+        var createOrderDto = createOrderDto(UUID.randomUUID());
+
+        // when
+        var response = restTemplate.exchange(getBaseUrl(), HttpMethod.POST,
+                new HttpEntity<>(createOrderDto, respondAsyncHeaders()), Void.class);
+
+        // then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.ACCEPTED);
+        var location = response.getHeaders().getLocation();
+
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> {
+            var order = restTemplate.getForEntity(location, OrderDto.class);
+            assertThat(order.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(order.getBody().status()).isEqualTo(OrderStatus.REJECTED);
+        });
+    }
+
+    @Test
+    @DisplayName("""
+            given asynchronous request to add order with invalid shape,
+            when request is sent,
+            then HTTP 400 status received""")
+    void givenInvalidAsyncRequestToAddOrder_whenRequestIsSent_thenHttp400() {
+        // given
+        var createOrderDto = new CreateOrderDto(null, new BigDecimal("54.56"), List.of(), null);
+
+        // when
+        var response = restTemplate.exchange(getBaseUrl(), HttpMethod.POST,
+                new HttpEntity<>(createOrderDto, respondAsyncHeaders()), ErrorResponse.class);
+
+        // then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(response.getBody())
+                .extracting("message")
+                .asString()
+                .contains("customerId");
+    }
+
+    @Test
+    @DisplayName("""
+            given list of paid order ids from settlement file,
+            when request is sent,
+            then pending orders are paid and result is reported per id""")
+    void givenSettledOrderIds_whenPaymentsRequestIsSent_thenPendingOrdersPaidAndResultReportedPerId() {
+        // given
+        var customerId = customerRepository.save(new Customer("Marian", "Paździoch", "marian.payments@gmail.com")).getCustomerId().id();
+        var pendingOrder = restTemplate.postForEntity(getBaseUrl(), createOrderDto(customerId), Void.class).getHeaders().getLocation();
+        var paidOrder = restTemplate.postForEntity(getBaseUrl(), createOrderDto(customerId), Void.class).getHeaders().getLocation();
+        restTemplate.postForEntity(paidOrder + "/pay", null, Void.class);
+        var pendingOrderId = orderIdFrom(pendingOrder);
+        var paidOrderId = orderIdFrom(paidOrder);
+        var unknownOrderId = UUID.randomUUID();
+
+        // when
+        var response = restTemplate.postForEntity(getBaseUrl() + "/payments",
+                List.of(pendingOrderId, paidOrderId, unknownOrderId), PaymentResultDto[].class);
+
+        // then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).containsExactly(
+                new PaymentResultDto(pendingOrderId, PaymentStatus.PAID),
+                new PaymentResultDto(paidOrderId, PaymentStatus.ALREADY_PAID),
+                new PaymentResultDto(unknownOrderId, PaymentStatus.NOT_FOUND));
+        assertThat(restTemplate.getForObject(pendingOrder, OrderDto.class).status()).isEqualTo(OrderStatus.PAID);
+    }
+
+    @Test
+    @DisplayName("""
+            given malformed list of order ids,
+            when payments request is sent,
+            then HTTP 400 status received""")
+    void givenMalformedOrderIds_whenPaymentsRequestIsSent_thenHttp400() {
+        // given
+        var headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+
+        // when
+        var response = restTemplate.postForEntity(getBaseUrl() + "/payments",
+                new HttpEntity<>("[\"not-an-id\"]", headers), ErrorResponse.class);
+
+        // then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(response.getBody())
+                .extracting("message")
+                .asString()
+                .contains("not-an-id");
+    }
+
+    @Test
+    @DisplayName("""
+            given list of order ids broken after a valid id,
+            when payments request is sent,
+            then ids before the broken entry are paid and reported with HTTP 400 status""")
+    void givenOrderIdsBrokenAfterValidId_whenPaymentsRequestIsSent_thenPaidIdsReportedWithHttp400() {
+        // given
+        var customerId = customerRepository.save(new Customer("Marian", "Paździoch", "marian.broken@gmail.com")).getCustomerId().id();
+        var pendingOrder = restTemplate.postForEntity(getBaseUrl(), createOrderDto(customerId), Void.class).getHeaders().getLocation();
+        var pendingOrderId = orderIdFrom(pendingOrder);
+        var headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+
+        // when
+        var response = restTemplate.postForEntity(getBaseUrl() + "/payments",
+                new HttpEntity<>("[\"" + pendingOrderId + "\", \"not-an-id\"", headers), PaymentsErrorResponse.class);
+
+        // then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(response.getBody().message()).contains("after 1 processed ids", "not-an-id");
+        assertThat(response.getBody().results()).containsExactly(new PaymentResultDto(pendingOrderId, PaymentStatus.PAID));
+        assertThat(restTemplate.getForObject(pendingOrder, OrderDto.class).status()).isEqualTo(OrderStatus.PAID);
+    }
+
+    @Test
+    @DisplayName("""
+            given orders created in a time window,
+            when export is requested for that window and status,
+            then matching orders are streamed as NDJSON""")
+    void givenOrdersInTimeWindow_whenExportIsRequested_thenMatchingOrdersStreamedAsNdjson() throws Exception {
+        // given
+        var customerId = customerRepository.save(new Customer("Halina", "Kiepska", "halina.export@gmail.com")).getCustomerId().id();
+        var from = Instant.now();
+        var firstOrder = orderIdFrom(restTemplate.postForEntity(getBaseUrl(), createOrderDto(customerId), Void.class).getHeaders().getLocation());
+        var paidOrder = restTemplate.postForEntity(getBaseUrl(), createOrderDto(customerId), Void.class).getHeaders().getLocation();
+        restTemplate.postForEntity(paidOrder + "/pay", null, Void.class);
+        var secondOrder = orderIdFrom(restTemplate.postForEntity(getBaseUrl(), createOrderDto(customerId), Void.class).getHeaders().getLocation());
+        var to = Instant.now().plusMillis(1);
+
+        // when
+        var response = restTemplate.getForEntity(getBaseUrl() + "/export?from={from}&to={to}&status=PENDING",
+                String.class, from, to);
+
+        // then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_NDJSON);
+        var lines = response.getBody().lines().toList();
+        var orders = new ArrayList<OrderDto>();
+        for (var line : lines) {
+            orders.add(objectMapper.readValue(line, OrderDto.class));
+        }
+        assertThat(orders)
+                .extracting(OrderDto::id)
+                .containsExactly(firstOrder, secondOrder);
+        assertThat(orders.getFirst().basketItems()).hasSize(2);
+        assertThat(orders.getFirst().address()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("""
+            given order fetched with its ETag,
+            when order is polled with If-None-Match before and after payment,
+            then HTTP 304 is received while unchanged and the paid order with a new ETag afterwards""")
+    void givenOrderETag_whenOrderIsPolledWithIfNoneMatch_thenHttp304UntilOrderChanges() {
+        // given
+        var customerId = customerRepository.save(new Customer("Arnold", "Boczek", "boczek.etag@gmail.com")).getCustomerId().id();
+        var orderLocation = restTemplate.postForEntity(getBaseUrl(), createOrderDto(customerId), Void.class).getHeaders().getLocation();
+        var orderId = orderIdFrom(orderLocation);
+        var eTag = restTemplate.getForEntity(orderLocation, OrderDto.class).getHeaders().getETag();
+
+        // when
+        var unchanged = restTemplate.exchange(orderLocation, HttpMethod.GET, new HttpEntity<>(ifNoneMatch(eTag)), String.class);
+        restTemplate.postForEntity(orderLocation + "/pay", null, Void.class);
+        var changed = restTemplate.exchange(orderLocation, HttpMethod.GET, new HttpEntity<>(ifNoneMatch(eTag)), OrderDto.class);
+
+        // then
+        assertThat(eTag).isEqualTo("W/\"" + orderId + "-0\"");
+        assertThat(unchanged.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(unchanged.getHeaders().getETag()).isEqualTo(eTag);
+        assertThat(unchanged.getBody()).isNull();
+        assertThat(changed.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(changed.getHeaders().getETag()).isEqualTo("W/\"" + orderId + "-1\"");
+        assertThat(changed.getBody().status()).isEqualTo(OrderStatus.PAID);
+    }
+
+    private UUID orderIdFrom(URI location) {
+        var path = location.getPath();
+        return UUID.fromString(path.substring(path.lastIndexOf('/') + 1));
+    }
+
+    private HttpHeaders ifNoneMatch(String eTag) {
+        var headers = new HttpHeaders();
+        headers.setIfNoneMatch(eTag);
+        return headers;
+    }
+
+    private HttpHeaders respondAsyncHeaders() {
+        var headers = new HttpHeaders();
+        headers.set("Prefer", "respond-async, wait=10");
+        return headers;
+    }
+
     private CreateOrderDto createOrderWitchCustomerDto() {
         var customerId = customerRepository.save(new Customer("Waldek", "Kiepski", "waldek@gmail.com")).getCustomerId().id();
 
@@ -0,0 +1,112 @@
+package pl.kopytka.acceptance;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import pl.kopytka.application.CustomerService;
+import pl.kopytka.application.OrderService;
+import pl.kopytka.application.dto.CreateCustomerDto;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static pl.kopytka.application.OrderFixtures.createOrderDto;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "kopytka.order-events.idle-timeout=1s")
+class OrderEventsAcceptanceTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    @DisplayName("""
+            given subscriber of pending order events,
+            when order is paid,
+            then current status and the PAID transition are pushed and the stream is closed""")
+    void givenSubscriberOfPendingOrder_whenOrderIsPaid_thenStatusChangesPushedAndStreamClosed() {
+        //given
+        var orderId = orderService.createOrder(createOrderDto(createCustomer("ferdek.events@gmail.com")));
+        var subscribers = openSubscribers();
+        var events = CompletableFuture.supplyAsync(() -> subscribe(orderId.id()));
+        await().atMost(Duration.ofSeconds(5)).until(() -> openSubscribers() > subscribers);
+
+        //when
+        orderService.pay(orderId);
+
+        //then
+        var response = events.orTimeout(5, TimeUnit.SECONDS).join();
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody())
+                .containsSubsequence("event:status", "id:PENDING", "\"status\":\"PENDING\"",
+                        "event:status", "id:PAID", "\"status\":\"PAID\"");
+    }
+
+    @Test
+    @DisplayName("""
+            given subscriber of pending order events,
+            when order does not change within idle timeout,
+            then only current status is pushed and the stream is closed""")
+    void givenSubscriberOfPendingOrder_whenNothingHappens_thenStreamClosedAfterIdleTimeout() {
+        //given
+        var orderId = orderService.createOrder(createOrderDto(createCustomer("halina.events@gmail.com")));
+
+        //when
+        var response = CompletableFuture.supplyAsync(() -> subscribe(orderId.id()))
+                .orTimeout(5, TimeUnit.SECONDS)
+                .join();
+
+        //then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody())
+                .contains("\"status\":\"PENDING\"")
+                .doesNotContain("PAID");
+    }
+
+    @Test
+    @DisplayName("""
+            given non-existing order id,
+            when order events are requested,
+            then HTTP 404 status received""")
+    void givenNonExistingOrderId_whenEventsAreRequested_thenHttp404() {
+        //when
+        var response = subscribe(UUID.randomUUID());
+
+        //then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    private ResponseEntity<String> subscribe(UUID orderId) {
+        return restTemplate.getForEntity("http://localhost:" + port + "/api/orders/" + orderId + "/events", String.class);
+    }
+
+    private double openSubscribers() {
+        return meterRegistry.get("kopytka.order.events.subscribers").gauge().value();
+    }
+
+    private UUID createCustomer(String email) {
+        return customerService.addCustomer(new CreateCustomerDto("Marian", "Paździoch", email)).id();
+    }
+}
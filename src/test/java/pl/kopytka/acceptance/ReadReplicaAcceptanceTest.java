@@ -0,0 +1,162 @@
+package pl.kopytka.acceptance;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import pl.kopytka.application.CustomerRepository;
+import pl.kopytka.application.dto.OrderDto;
+import pl.kopytka.domain.Customer;
+import pl.kopytka.domain.OrderStatus;
+
+import java.net.URI;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static pl.kopytka.application.OrderFixtures.createOrderDto;
+
+/**
+ * Runs against a primary and a replica H2 database. Replication is simulated by copying the primary into the
+ * replica on demand, so the replica lags until {@link #replicate()} is called.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "kopytka.outbox.relay-enabled=false",
+                "kopytka.sharding.shards[0].url=" + ReadReplicaAcceptanceTest.PRIMARY_URL,
+                "kopytka.sharding.shards[0].username=sa",
+                "kopytka.sharding.shards[0].replicas[0].url=" + ReadReplicaAcceptanceTest.REPLICA_URL,
+                "kopytka.sharding.shards[0].replicas[0].username=sa"})
+class ReadReplicaAcceptanceTest {
+
+    static final String PRIMARY_URL = "jdbc:h2:mem:primary;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_URL = "jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1";
+    private static final String CONSISTENCY_TOKEN = "Consistency-Token";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        replicate();
+    }
+
+    @Test
+    @DisplayName("""
+            given order replicated before it was paid,
+            when order is read with and without the token returned by the payment,
+            then stale replica serves the read without token and primary the read with token""")
+    void givenOrderPaidAfterReplication_whenOrderIsRead_thenTokenMakesPaymentVisible() throws SQLException {
+        //given
+        var location = createOrder();
+        replicate();
+        var payment = restTemplate.postForEntity(location + "/pay", null, Void.class);
+
+        //when
+        var withoutToken = restTemplate.getForEntity(location, OrderDto.class);
+        var withToken = getOrder(location, payment.getHeaders().getFirst(CONSISTENCY_TOKEN));
+
+        //then
+        assertThat(payment.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+        assertThat(payment.getHeaders().getFirst(CONSISTENCY_TOKEN)).isEqualTo("1");
+        assertThat(withoutToken.getBody().status()).isEqualTo(OrderStatus.PENDING);
+        assertThat(withToken.getBody().status()).isEqualTo(OrderStatus.PAID);
+    }
+
+    @Test
+    @DisplayName("""
+            given entity tag read before the order was paid,
+            when order is polled with If-None-Match with and without the token returned by the payment,
+            then stale replica answers HTTP 304 without token and the paid order is returned with token""")
+    void givenETagReadBeforePayment_whenOrderIsPolledWithIfNoneMatch_thenTokenSkipsStaleNotModified() throws SQLException {
+        //given
+        var location = createOrder();
+        replicate();
+        var eTag = restTemplate.getForEntity(location, OrderDto.class).getHeaders().getETag();
+        var token = restTemplate.postForEntity(location + "/pay", null, Void.class).getHeaders().getFirst(CONSISTENCY_TOKEN);
+
+        //when
+        var headers = new HttpHeaders();
+        headers.setIfNoneMatch(eTag);
+        var withoutToken = restTemplate.exchange(location, HttpMethod.GET, new HttpEntity<>(headers), OrderDto.class);
+        headers.set(CONSISTENCY_TOKEN, token);
+        var withToken = restTemplate.exchange(location, HttpMethod.GET, new HttpEntity<>(headers), OrderDto.class);
+
+        //then
+        assertThat(withoutToken.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(withToken.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(withToken.getBody().status()).isEqualTo(OrderStatus.PAID);
+    }
+
+    @Test
+    @DisplayName("""
+            given order created after last replication,
+            when order is read with the token returned on creation,
+            then order is read from primary and HTTP 200 status received""")
+    void givenOrderNotReplicatedYet_whenOrderIsRead_thenReadFromPrimary() {
+        //given
+        var created = restTemplate.postForEntity(getBaseUrl(), createOrderDto(createCustomer()), Void.class);
+
+        //when
+        var response = getOrder(created.getHeaders().getLocation(), created.getHeaders().getFirst(CONSISTENCY_TOKEN));
+
+        //then
+        assertThat(created.getHeaders().getFirst(CONSISTENCY_TOKEN)).isEqualTo("0");
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody().status()).isEqualTo(OrderStatus.PENDING);
+    }
+
+    private ResponseEntity<OrderDto> getOrder(URI location, String token) {
+        var headers = new HttpHeaders();
+        headers.set(CONSISTENCY_TOKEN, token);
+        return restTemplate.exchange(location, HttpMethod.GET, new HttpEntity<>(headers), OrderDto.class);
+    }
+
+    private URI createOrder() {
+        return restTemplate.postForEntity(getBaseUrl(), createOrderDto(createCustomer()), Void.class).getHeaders().getLocation();
+    }
+
+    private UUID createCustomer() {
+        return customerRepository.save(new Customer("Marian", "Paździoch", UUID.randomUUID() + "@replica.pl"))
+                .getCustomerId().id();
+    }
+
+    private static void replicate() throws SQLException {
+        var statements = new ArrayList<String>();
+        try (var primary = DriverManager.getConnection(PRIMARY_URL, "sa", "");
+             var script = primary.createStatement().executeQuery("script nopasswords nosettings")) {
+            while (script.next()) {
+                statements.add(script.getString(1));
+            }
+        }
+        try (var replica = DriverManager.getConnection(REPLICA_URL, "sa", "");
+             var statement = replica.createStatement()) {
+            statement.execute("drop all objects");
+            for (var sql : statements) {
+                if (!sql.startsWith("CREATE USER")) {
+                    statement.execute(sql);
+                }
+            }
+        }
+    }
+
+    private String getBaseUrl() {
+        return "http://localhost:" + port + "/api/orders";
+    }
+}
@@ -0,0 +1,91 @@
+package pl.kopytka.application;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+import pl.kopytka.application.dto.CreateCustomerDto;
+import pl.kopytka.domain.CustomerId;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "kopytka.outbox.relay-enabled=false")
+class CustomerCacheTest {
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private CustomerCache customerCache;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @Test
+    void shouldServeRepeatedCustomerReadsFromCache() {
+        //given
+        var customerId = customerService.addCustomer(new CreateCustomerDto("Marian", "Paździoch", "marian.cache@gmail.com"));
+        customerService.getCustomer(customerId.id());
+        statistics.clear();
+
+        //when
+        var customer = customerService.getCustomer(customerId.id());
+
+        //then
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(customer.email()).isEqualTo("marian.cache@gmail.com");
+    }
+
+    @Test
+    void shouldReplaceCachedCustomerWhenNewerVersionIsCommitted() {
+        //given
+        var customerId = customerService.addCustomer(new CreateCustomerDto("Helena", "Paździoch", "helena.cache@gmail.com"));
+        customerService.getCustomer(customerId.id());
+
+        //when
+        updateLastName(customerId, "Kiepska");
+
+        //then
+        assertThat(customerService.getCustomer(customerId.id()).lastName()).isEqualTo("Kiepska");
+    }
+
+    @Test
+    void shouldNotReplaceCachedCustomerWithOlderVersion() {
+        //given
+        var customerId = customerService.addCustomer(new CreateCustomerDto("Arnold", "Boczek", "arnold.cache@gmail.com"));
+        var staleCustomer = customerRepository.findById(customerId).orElseThrow();
+        updateLastName(customerId, "Boczek-Kiepski");
+
+        //when
+        customerCache.refresh(staleCustomer);
+
+        //then
+        assertThat(customerService.getCustomer(customerId.id()).lastName()).isEqualTo("Boczek-Kiepski");
+    }
+
+    private void updateLastName(CustomerId customerId, String lastName) {
+        transactionTemplate.executeWithoutResult(status -> {
+            var customer = customerRepository.findById(customerId).orElseThrow();
+            ReflectionTestUtils.setField(customer, "lastName", lastName);
+        });
+    }
+}
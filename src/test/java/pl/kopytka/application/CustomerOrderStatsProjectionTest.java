@@ -0,0 +1,111 @@
+package pl.kopytka.application;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+import pl.kopytka.application.dto.CreateCustomerDto;
+import pl.kopytka.application.dto.CreateOrderResultDto;
+import pl.kopytka.application.dto.CustomerOrderStatsMismatchDto;
+import pl.kopytka.domain.Order;
+import pl.kopytka.domain.OrderId;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static pl.kopytka.application.OrderFixtures.createOrderDto;
+
+@SpringBootTest(properties = "kopytka.outbox.relay-enabled=false")
+class CustomerOrderStatsProjectionTest {
+
+    @Autowired
+    private CustomerOrderStatsProjection customerOrderStats;
+
+    @Autowired
+    private CustomerOrderStatsRepository customerOrderStatsRepository;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void shouldUpdateStatsIncrementallyWhenOrdersAreCreatedAndPaid() {
+        //given
+        var customerId = customerService.addCustomer(new CreateCustomerDto("Ferdynand", "Kiepski", "ferdek.stats@gmail.com")).id();
+        var firstOrderId = orderService.createOrder(createOrderDto(customerId, "10.00"));
+        var batchOrderIds = orderService.createOrders(List.of(createOrderDto(customerId, "20.00"), createOrderDto(customerId, "30.00")))
+                .stream()
+                .map(CreateOrderResultDto::orderId)
+                .map(OrderId::new)
+                .toList();
+
+        //when
+        orderService.pay(firstOrderId);
+        orderService.payOrders(List.of(batchOrderIds.getFirst()).iterator());
+
+        //then
+        var stats = customerService.getCustomerOrderStats(customerId);
+        assertThat(stats.orderCount()).isEqualTo(3);
+        assertThat(stats.paidOrderCount()).isEqualTo(2);
+        assertThat(stats.paidRevenue()).isEqualByComparingTo("30.00");
+        assertThat(stats.lastOrderAt()).isEqualTo(orderRepository.findAllById(batchOrderIds).stream()
+                .map(Order::getCreateAt)
+                .max(Instant::compareTo)
+                .orElseThrow());
+        assertThat(customerOrderStats.findInconsistencies())
+                .extracting(CustomerOrderStatsMismatchDto::customerId)
+                .doesNotContain(customerId);
+    }
+
+    @Test
+    void shouldReportDriftedStatsAndRepairThemOnRebuild() {
+        //given
+        var customerId = customerService.addCustomer(new CreateCustomerDto("Marian", "Paździoch", "marian.stats@gmail.com")).id();
+        var orderId = orderService.createOrder(createOrderDto(customerId, "15.00"));
+        orderService.pay(orderId);
+        transactionTemplate.executeWithoutResult(status ->
+                customerOrderStatsRepository.addPayments(customerId, 1, new BigDecimal("99.00")));
+
+        //when
+        var inconsistencies = customerOrderStats.findInconsistencies();
+        customerOrderStats.rebuild();
+
+        //then
+        assertThat(inconsistencies)
+                .filteredOn(mismatch -> mismatch.customerId().equals(customerId))
+                .singleElement()
+                .satisfies(mismatch -> {
+                    assertThat(mismatch.expected().paidOrderCount()).isEqualTo(1);
+                    assertThat(mismatch.actual().paidOrderCount()).isEqualTo(2);
+                });
+        assertThat(customerOrderStats.findInconsistencies()).isEmpty();
+        var stats = customerService.getCustomerOrderStats(customerId);
+        assertThat(stats.orderCount()).isEqualTo(1);
+        assertThat(stats.paidOrderCount()).isEqualTo(1);
+        assertThat(stats.paidRevenue()).isEqualByComparingTo("15.00");
+    }
+
+    @Test
+    void shouldReturnEmptyStatsForCustomerWithoutOrders() {
+        //given
+        var customerId = customerService.addCustomer(new CreateCustomerDto("Walduś", "Kiepski", "waldus.stats@gmail.com")).id();
+
+        //when
+        var stats = customerService.getCustomerOrderStats(customerId);
+
+        //then
+        assertThat(stats.orderCount()).isZero();
+        assertThat(stats.paidRevenue()).isEqualByComparingTo("0.00");
+        assertThat(stats.lastOrderAt()).isNull();
+    }
+}
@@ -0,0 +1,79 @@
+package pl.kopytka.application;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import pl.kopytka.application.dto.CreateCustomerDto;
+import pl.kopytka.application.exception.CustomerAlreadyExistsException;
+import pl.kopytka.domain.CustomerId;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "kopytka.outbox.relay-enabled=false")
+class CustomerSignupConcurrencyTest {
+
+    private static final int CONCURRENT_SIGNUPS = 200;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Test
+    void shouldCreateExactlyOneCustomerWhenSignupsWithSameEmailRace() throws Exception {
+        //given
+        var emails = List.of("Paździoch.Race@gmail.com", "paździoch.race@gmail.com", "PAŹDZIOCH.RACE@GMAIL.COM");
+        var startGate = new CountDownLatch(1);
+
+        //when
+        var outcomes = new ArrayList<Future<CustomerId>>();
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CONCURRENT_SIGNUPS; i++) {
+                var email = emails.get(i % emails.size());
+                outcomes.add(executor.submit(() -> {
+                    startGate.await();
+                    return customerService.addCustomer(new CreateCustomerDto("Marian", "Paździoch", email));
+                }));
+            }
+            startGate.countDown();
+        }
+
+        //then
+        int created = 0;
+        var failures = new ArrayList<Throwable>();
+        for (var outcome : outcomes) {
+            try {
+                outcome.get();
+                created++;
+            } catch (ExecutionException ex) {
+                failures.add(ex.getCause());
+            }
+        }
+        assertThat(created).isEqualTo(1);
+        assertThat(failures)
+                .hasSize(CONCURRENT_SIGNUPS - 1)
+                .allSatisfy(failure -> assertThat(failure).isInstanceOf(CustomerAlreadyExistsException.class));
+        assertThat(customerRepository.findExistingNormalizedEmails(List.of("paździoch.race@gmail.com")))
+                .hasSize(1);
+    }
+
+    @Test
+    void shouldRejectSignupWithEmailDifferingOnlyInCase() {
+        //given
+        customerService.addCustomer(new CreateCustomerDto("Halina", "Kiepska", "halina.case@gmail.com"));
+
+        //expect
+        assertThatThrownBy(() -> customerService.addCustomer(new CreateCustomerDto("Halina", "Kiepska", "Halina.Case@Gmail.com")))
+                .isInstanceOf(CustomerAlreadyExistsException.class)
+                .hasMessageContaining("Halina.Case@Gmail.com");
+    }
+}
@@ -0,0 +1,129 @@
+package pl.kopytka.application;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import pl.kopytka.application.exception.IdempotencyKeyReusedException;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+class IdempotencyKeyStoreTest {
+
+    private static final Map<String, Object> REQUEST = Map.of("price", new BigDecimal("20.00"));
+
+    @Autowired
+    private IdempotencyKeyStore idempotencyKeyStore;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Test
+    void shouldExecuteAgainWhenStoredResponseExpired() {
+        //given
+        var key = UUID.randomUUID().toString();
+        idempotencyRecordRepository.save(new IdempotencyRecord("test:" + key, IdempotencyKeyStore.hash(REQUEST), "old", Instant.now().minusSeconds(1)));
+
+        //when
+        var response = idempotencyKeyStore.execute("test", key, REQUEST, () -> "new");
+
+        //then
+        assertThat(response.replayed()).isFalse();
+        assertThat(response.response()).isEqualTo("new");
+        assertThat(idempotencyKeyStore.execute("test", key, REQUEST, () -> "newer").response()).isEqualTo("new");
+    }
+
+    @Test
+    void shouldReplayRequestDifferingOnlyInAmountScale() {
+        //given
+        var key = UUID.randomUUID().toString();
+        idempotencyKeyStore.execute("test", key, REQUEST, () -> "first");
+
+        //when
+        var response = idempotencyKeyStore.execute("test", key, Map.of("price", new BigDecimal("20.0")), () -> "second");
+
+        //then
+        assertThat(response.replayed()).isTrue();
+        assertThat(response.response()).isEqualTo("first");
+    }
+
+    @Test
+    void shouldRejectDifferentRequestWithSameKey() {
+        //given
+        var key = UUID.randomUUID().toString();
+        idempotencyKeyStore.execute("test", key, REQUEST, () -> "first");
+
+        //when & then
+        assertThrows(IdempotencyKeyReusedException.class,
+                () -> idempotencyKeyStore.execute("test", key, Map.of("price", new BigDecimal("20.01")), () -> "second"));
+    }
+
+    @Test
+    void shouldWaitForResponseOfKeyPendingOnAnotherInstance() {
+        //given
+        var key = UUID.randomUUID().toString();
+        var id = "test:" + key;
+        idempotencyRecordRepository.save(IdempotencyRecord.pending(id, IdempotencyKeyStore.hash(REQUEST), Instant.now().plusSeconds(60)));
+        CompletableFuture.runAsync(() -> idempotencyRecordRepository.complete(id, "other", Instant.now().plusSeconds(60)),
+                CompletableFuture.delayedExecutor(200, TimeUnit.MILLISECONDS));
+
+        //when
+        var response = idempotencyKeyStore.execute("test", key, REQUEST, () -> "mine");
+
+        //then
+        assertThat(response.replayed()).isTrue();
+        assertThat(response.response()).isEqualTo("other");
+    }
+
+    @Test
+    void shouldTakeOverKeyWhosePendingRowExpired() {
+        //given
+        var key = UUID.randomUUID().toString();
+        idempotencyRecordRepository.save(IdempotencyRecord.pending("test:" + key, IdempotencyKeyStore.hash(REQUEST), Instant.now().minusSeconds(1)));
+
+        //when
+        var response = idempotencyKeyStore.execute("test", key, REQUEST, () -> "mine");
+
+        //then
+        assertThat(response.replayed()).isFalse();
+        assertThat(idempotencyRecordRepository.findById("test:" + key).orElseThrow().getResponse()).isEqualTo("mine");
+    }
+
+    @Test
+    void shouldReleaseKeyWhenActionFails() {
+        //given
+        var key = UUID.randomUUID().toString();
+
+        //when
+        assertThrows(IllegalStateException.class,
+                () -> idempotencyKeyStore.execute("test", key, REQUEST, () -> { throw new IllegalStateException("failed"); }));
+
+        //then
+        assertThat(idempotencyRecordRepository.existsById("test:" + key)).isFalse();
+        assertThat(idempotencyKeyStore.execute("test", key, REQUEST, () -> "retried").response()).isEqualTo("retried");
+    }
+
+    @Test
+    void shouldDeleteExpiredKeys() {
+        //given
+        var expired = "test:" + UUID.randomUUID();
+        var valid = "test:" + UUID.randomUUID();
+        idempotencyRecordRepository.save(new IdempotencyRecord(expired, IdempotencyKeyStore.hash(REQUEST), "", Instant.now().minusSeconds(1)));
+        idempotencyRecordRepository.save(new IdempotencyRecord(valid, IdempotencyKeyStore.hash(REQUEST), "", Instant.now().plusSeconds(60)));
+
+        //when
+        idempotencyKeyStore.deleteExpired();
+
+        //then
+        assertThat(idempotencyRecordRepository.existsById(expired)).isFalse();
+        assertThat(idempotencyRecordRepository.existsById(valid)).isTrue();
+    }
+}
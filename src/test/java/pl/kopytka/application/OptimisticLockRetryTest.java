@@ -0,0 +1,54 @@
+package pl.kopytka.application;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import pl.kopytka.domain.Order;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class OptimisticLockRetryTest {
+
+    private final OptimisticLockRetry retry =
+            new OptimisticLockRetry(new OptimisticLockRetryProperties(3, Duration.ofMillis(1), Duration.ofMillis(5)));
+
+    @Test
+    void shouldRetryAfterVersionConflict() {
+        var attempts = new AtomicInteger();
+
+        var result = retry.execute(() -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new ObjectOptimisticLockingFailureException(Order.class, "id");
+            }
+            return "paid";
+        });
+
+        assertEquals("paid", result);
+        assertEquals(3, attempts.get());
+    }
+
+    @Test
+    void shouldRethrowConflictWhenAttemptsAreExhausted() {
+        var attempts = new AtomicInteger();
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> retry.execute(() -> {
+            attempts.incrementAndGet();
+            throw new ObjectOptimisticLockingFailureException(Order.class, "id");
+        }));
+        assertEquals(3, attempts.get());
+    }
+
+    @Test
+    void shouldNotRetryOtherFailures() {
+        var attempts = new AtomicInteger();
+
+        assertThrows(IllegalStateException.class, () -> retry.execute(() -> {
+            attempts.incrementAndGet();
+            throw new IllegalStateException("not a conflict");
+        }));
+        assertEquals(1, attempts.get());
+    }
+}
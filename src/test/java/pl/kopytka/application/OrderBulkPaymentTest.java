@@ -0,0 +1,101 @@
+package pl.kopytka.application;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import pl.kopytka.application.dto.CreateCustomerDto;
+import pl.kopytka.application.dto.CreateOrderResultDto;
+import pl.kopytka.application.dto.PaymentResultDto;
+import pl.kopytka.application.dto.PaymentResultDto.PaymentStatus;
+import pl.kopytka.domain.OrderId;
+import pl.kopytka.domain.OrderStatus;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static pl.kopytka.application.OrderFixtures.createOrderDto;
+
+@SpringBootTest(properties = "kopytka.outbox.relay-enabled=false")
+class OrderBulkPaymentTest {
+
+    private static final int ORDERS = 1200;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @Test
+    void shouldPayOrdersInChunksWithOneQueryPerChunk() {
+        //given
+        var customerId = customerService.addCustomer(new CreateCustomerDto("Paweł", "Kiepski", "pawel.payments@gmail.com")).id();
+        var orderIds = new ArrayList<>(orderService.createOrders(IntStream.range(0, ORDERS)
+                        .mapToObj(i -> createOrderDto(customerId))
+                        .toList()).stream()
+                .map(CreateOrderResultDto::orderId)
+                .map(OrderId::new)
+                .toList());
+        Collections.shuffle(orderIds);
+        statistics.clear();
+
+        //when
+        var results = orderService.payOrders(orderIds.iterator());
+
+        //then
+        assertThat(statistics.getQueryExecutionCount()).isEqualTo(3);
+        assertThat(statistics.getEntityFetchCount()).isZero();
+        assertThat(statistics.getCollectionFetchCount()).isZero();
+        assertThat(results)
+                .extracting(PaymentResultDto::status)
+                .containsOnly(PaymentStatus.PAID)
+                .hasSize(ORDERS);
+        assertThat(results)
+                .extracting(PaymentResultDto::orderId)
+                .containsExactlyElementsOf(orderIds.stream().map(OrderId::id).toList());
+        assertThat(orderRepository.findAllByIdIn(orderIds))
+                .allSatisfy(order -> assertThat(order.getStatus()).isEqualTo(OrderStatus.PAID));
+    }
+
+    @Test
+    void shouldReportAlreadyPaidAndMissingOrders() {
+        //given
+        var customerId = customerService.addCustomer(new CreateCustomerDto("Paweł", "Kiepski", "pawel.paid@gmail.com")).id();
+        var paidOrderId = orderService.createOrder(createOrderDto(customerId));
+        var pendingOrderId = orderService.createOrder(createOrderDto(customerId));
+        var missingOrderId = new OrderId(UUID.randomUUID());
+        orderService.pay(paidOrderId);
+
+        //when
+        var results = orderService.payOrders(List.of(paidOrderId, pendingOrderId, missingOrderId, pendingOrderId).iterator());
+
+        //then
+        assertThat(results).containsExactly(
+                new PaymentResultDto(paidOrderId.id(), PaymentStatus.ALREADY_PAID),
+                new PaymentResultDto(pendingOrderId.id(), PaymentStatus.PAID),
+                new PaymentResultDto(missingOrderId.id(), PaymentStatus.NOT_FOUND),
+                new PaymentResultDto(pendingOrderId.id(), PaymentStatus.ALREADY_PAID));
+    }
+}
@@ -0,0 +1,39 @@
+package pl.kopytka.application;
+
+import pl.kopytka.application.dto.CreateOrderAddressDto;
+import pl.kopytka.application.dto.CreateOrderDto;
+import pl.kopytka.application.dto.CreateOrderItemDto;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Orders shared by the tests that only need some valid order of a given customer.
+ */
+public final class OrderFixtures {
+
+    private OrderFixtures() {
+    }
+
+    /**
+     * Two pieces of one product for 20.00 in total.
+     */
+    public static CreateOrderDto createOrderDto(UUID customerId) {
+        var items = List.of(new CreateOrderItemDto(UUID.randomUUID(), 2, new BigDecimal("10.00"), new BigDecimal("20.00")));
+        return new CreateOrderDto(customerId, new BigDecimal("20.00"), items, address());
+    }
+
+    /**
+     * A single piece of one product for {@code price}.
+     */
+    public static CreateOrderDto createOrderDto(UUID customerId, String price) {
+        var amount = new BigDecimal(price);
+        var items = List.of(new CreateOrderItemDto(UUID.randomUUID(), 1, amount, amount));
+        return new CreateOrderDto(customerId, amount, items, address());
+    }
+
+    private static CreateOrderAddressDto address() {
+        return new CreateOrderAddressDto("Ćwiartki", "51-000", "Wrocław", "3/4");
+    }
+}
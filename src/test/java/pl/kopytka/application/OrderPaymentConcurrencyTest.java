@@ -0,0 +1,78 @@
+package pl.kopytka.application;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import pl.kopytka.application.dto.CreateCustomerDto;
+import pl.kopytka.domain.OrderDomainException;
+import pl.kopytka.domain.OrderStatus;
+
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static pl.kopytka.application.OrderFixtures.createOrderDto;
+
+@SpringBootTest(properties = "kopytka.outbox.relay-enabled=false")
+class OrderPaymentConcurrencyTest {
+
+    private static final int CONCURRENT_PAYMENTS = 300;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Test
+    void shouldPayOrderExactlyOnceWhenPaymentsRace() throws Exception {
+        //given
+        var customerId = customerService.addCustomer(new CreateCustomerDto("Arnold", "Boczek", "boczek.pay@gmail.com"));
+        var orderId = orderService.createOrder(createOrderDto(customerId.id()));
+        var startGate = new CountDownLatch(1);
+
+        //when
+        var outcomes = new ArrayList<Future<?>>();
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CONCURRENT_PAYMENTS; i++) {
+                outcomes.add(executor.submit(() -> {
+                    startGate.await();
+                    orderService.pay(orderId);
+                    return null;
+                }));
+            }
+            startGate.countDown();
+        }
+
+        //then
+        int paid = 0;
+        var failures = new ArrayList<Throwable>();
+        for (var outcome : outcomes) {
+            try {
+                outcome.get();
+                paid++;
+            } catch (ExecutionException ex) {
+                failures.add(ex.getCause());
+            }
+        }
+        assertThat(paid).isPositive();
+        assertThat(failures).allSatisfy(failure -> assertThat(failure).isInstanceOf(OrderDomainException.class));
+
+        var order = orderRepository.findById(orderId).orElseThrow();
+        assertThat(order.getStatus()).isEqualTo(OrderStatus.PAID);
+        assertThat(order.getVersion()).isEqualTo(1);
+        assertThat(outboxEventRepository.findAll())
+                .filteredOn(event -> event.getAggregateId().equals(orderId.id()))
+                .extracting(OutboxEvent::getType)
+                .containsExactly(OrderOutbox.ORDER_CREATED, OrderOutbox.ORDER_PAID);
+    }
+}
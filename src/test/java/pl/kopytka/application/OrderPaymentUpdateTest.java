@@ -0,0 +1,86 @@
+package pl.kopytka.application;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import pl.kopytka.application.dto.CreateCustomerDto;
+import pl.kopytka.application.exception.OrderNotFoundException;
+import pl.kopytka.domain.Order;
+import pl.kopytka.domain.OrderDomainException;
+import pl.kopytka.domain.OrderId;
+import pl.kopytka.domain.OrderStatus;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static pl.kopytka.application.OrderFixtures.createOrderDto;
+
+@SpringBootTest(properties = "kopytka.outbox.relay-enabled=false")
+class OrderPaymentUpdateTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @Test
+    void shouldPayWithConditionalUpdateWithoutLoadingOrder() {
+        //given
+        var orderId = createOrder("ferdek.update@gmail.com");
+        statistics.clear();
+
+        //when
+        int version = orderService.pay(orderId);
+
+        //then
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(statistics.getCollectionLoadCount()).isZero();
+        assertThat(statistics.getEntityUpdateCount()).isZero();
+        var order = orderService.getVersionedOrderById(orderId);
+        assertThat(order.dto().status()).isEqualTo(OrderStatus.PAID);
+        assertThat(order.version()).isEqualTo(version).isEqualTo(1);
+    }
+
+    @Test
+    void shouldRejectPaymentOfPaidOrderWithDomainRule() {
+        //given
+        var orderId = createOrder("halina.update@gmail.com");
+        orderService.pay(orderId);
+
+        //when
+        var orderDomainException = assertThrows(OrderDomainException.class, () -> orderService.pay(orderId));
+
+        //then
+        assertEquals(Order.NOT_PAYABLE_MESSAGE, orderDomainException.getMessage());
+        assertThat(orderService.getVersionedOrderById(orderId).version()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldReportMissingOrderAsNotFound() {
+        //when & then
+        assertThrows(OrderNotFoundException.class, () -> orderService.pay(new OrderId(UUID.randomUUID())));
+    }
+
+    private OrderId createOrder(String email) {
+        var customerId = customerService.addCustomer(new CreateCustomerDto("Ferdynand", "Kiepski", email)).id();
+        return orderService.createOrder(createOrderDto(customerId));
+    }
+}
@@ -0,0 +1,107 @@
+package pl.kopytka.application;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import pl.kopytka.application.dto.CreateCustomerDto;
+import pl.kopytka.application.dto.CreateOrderAddressDto;
+import pl.kopytka.application.dto.CreateOrderDto;
+import pl.kopytka.application.dto.CreateOrderItemDto;
+import pl.kopytka.application.dto.OrderAddressDto;
+import pl.kopytka.application.dto.OrderItemDto;
+import pl.kopytka.application.exception.OrderNotFoundException;
+import pl.kopytka.domain.OrderId;
+import pl.kopytka.domain.OrderStatus;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static pl.kopytka.application.OrderFixtures.createOrderDto;
+
+@SpringBootTest(properties = "kopytka.outbox.relay-enabled=false")
+class OrderReadQueryTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @Test
+    void shouldReadOrderWithSingleStatementAndWithoutManagedEntities() {
+        //given
+        var customerId = customerService.addCustomer(new CreateCustomerDto("Ferdynand", "Kiepski", "ferdek.read@gmail.com")).id();
+        var productId = UUID.randomUUID();
+        var items = List.of(new CreateOrderItemDto(productId, 2, new BigDecimal("10.00"), new BigDecimal("20.00")),
+                new CreateOrderItemDto(UUID.randomUUID(), 1, new BigDecimal("5.50"), new BigDecimal("5.50")));
+        var address = new CreateOrderAddressDto("Ćwiartki", "51-000", "Wrocław", "3/4");
+        var orderId = orderService.createOrder(new CreateOrderDto(customerId, new BigDecimal("25.50"), items, address));
+        statistics.clear();
+
+        //when
+        var order = orderService.getOrderById(orderId);
+
+        //then
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(statistics.getCollectionLoadCount()).isZero();
+
+        assertThat(order.id()).isEqualTo(orderId.id());
+        assertThat(order.customerId()).isEqualTo(customerId);
+        assertThat(order.price()).isEqualTo(new BigDecimal("25.50"));
+        assertThat(order.status()).isEqualTo(OrderStatus.PENDING);
+        assertThat(order.address()).isEqualTo(new OrderAddressDto("Ćwiartki", "51-000", "Wrocław", "3/4"));
+        assertThat(order.basketItems()).containsExactly(
+                new OrderItemDto(productId, 2, new BigDecimal("10.00"), new BigDecimal("20.00")),
+                new OrderItemDto(items.get(1).productId(), 1, new BigDecimal("5.50"), new BigDecimal("5.50")));
+    }
+
+    @Test
+    void shouldExportOrdersWithMissingBoundsAndStatus() {
+        //given
+        var customerId = customerService.addCustomer(new CreateCustomerDto("Ferdynand", "Kiepski", "ferdek.export@gmail.com")).id();
+        var orderId = orderService.createOrder(createOrderDto(customerId));
+        var paidOrderId = orderService.createOrder(createOrderDto(customerId));
+        orderService.pay(paidOrderId);
+        var createdAfter = Instant.now().minusSeconds(60);
+
+        //when
+        var unbounded = new ArrayList<UUID>();
+        orderService.exportOrders(null, null, null, order -> unbounded.add(order.id()));
+        var pendingSince = new ArrayList<UUID>();
+        orderService.exportOrders(createdAfter, null, OrderStatus.PENDING, order -> pendingSince.add(order.id()));
+
+        //then
+        assertThat(unbounded).contains(orderId.id(), paidOrderId.id());
+        assertThat(pendingSince).contains(orderId.id()).doesNotContain(paidOrderId.id());
+    }
+
+    @Test
+    void shouldThrowExceptionWhenOrderDoesNotExist() {
+        //given
+        var notExistingOrderId = new OrderId(UUID.randomUUID());
+
+        //expect
+        assertThrows(OrderNotFoundException.class, () -> orderService.getOrderById(notExistingOrderId));
+    }
+}
@@ -0,0 +1,113 @@
+package pl.kopytka.application;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.mock.env.MockEnvironment;
+import pl.kopytka.application.dto.CreateOrderResultDto;
+import pl.kopytka.application.exception.OrderQueueFullException;
+import pl.kopytka.domain.OrderStatus;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static pl.kopytka.application.OrderFixtures.createOrderDto;
+
+class OrderSubmissionQueueTest {
+
+    private final OrderService orderService = mock(OrderService.class);
+    private final OrderSubmissionProperties properties =
+            new OrderSubmissionProperties(1, 0, 10, Duration.ofMillis(10), Duration.ofSeconds(1), Duration.ofMinutes(1));
+    private final OrderSubmissionRegistry registry = new OrderSubmissionRegistry(properties, mock(ApplicationEventPublisher.class));
+    private final OrderSubmissionQueue queue = new OrderSubmissionQueue(orderService, registry, properties,
+            new MockEnvironment());
+
+    @Test
+    void shouldRejectSubmissionWhenQueueIsFull() {
+        //given
+        queue.start();
+        var orderId = queue.submit(createOrderDto(UUID.randomUUID()));
+
+        //when
+        assertThrows(OrderQueueFullException.class, () -> queue.submit(createOrderDto(UUID.randomUUID())));
+
+        //then
+        assertThat(registry.findSubmitted(orderId))
+                .get()
+                .extracting("status")
+                .isEqualTo(OrderStatus.SUBMITTED);
+    }
+
+    @Test
+    void shouldRejectSubmissionWhenQueueIsNotRunning() {
+        //expect
+        assertThrows(OrderQueueFullException.class, () -> queue.submit(createOrderDto(UUID.randomUUID())));
+    }
+
+    @Test
+    void shouldDrainQueuedOrdersOnStop() {
+        //given
+        when(orderService.groupByCustomerShard(anyList())).thenAnswer(invocation -> Map.of(0, invocation.getArgument(0)));
+        when(orderService.createSubmittedOrders(eq(0), anyList()))
+                .thenReturn(List.of(CreateOrderResultDto.failed(0, "Could not find customer")));
+        queue.start();
+        var orderId = queue.submit(createOrderDto(UUID.randomUUID()));
+
+        //when
+        queue.stop();
+
+        //then
+        verify(orderService).createSubmittedOrders(eq(0), anyList());
+        assertThat(registry.findSubmitted(orderId)).isEmpty();
+        assertThat(registry.findRejected(orderId))
+                .get()
+                .extracting("status")
+                .isEqualTo(OrderStatus.REJECTED);
+    }
+
+    @Test
+    void shouldRetryOnlySubmissionsOfFailedShard() {
+        //given
+        var twoSubmissionsQueue = new OrderSubmissionQueue(orderService, registry,
+                new OrderSubmissionProperties(2, 0, 10, Duration.ofMillis(10), Duration.ofSeconds(1), Duration.ofMinutes(1)),
+                new MockEnvironment());
+        when(orderService.groupByCustomerShard(anyList())).thenAnswer(invocation -> {
+            List<OrderSubmission> submissions = invocation.getArgument(0);
+            return Map.of(0, List.of(submissions.get(0)), 1, List.of(submissions.get(1)));
+        });
+        when(orderService.createSubmittedOrders(eq(0), anyList())).thenAnswer(invocation -> created(invocation.getArgument(1)));
+        when(orderService.createSubmittedOrders(eq(1), anyList())).thenThrow(new IllegalStateException("Shard is down"));
+        when(orderService.createSubmittedOrders(anyList())).thenAnswer(invocation -> created(invocation.getArgument(0)));
+        twoSubmissionsQueue.start();
+        var committed = twoSubmissionsQueue.submit(createOrderDto(UUID.randomUUID()));
+        var retried = twoSubmissionsQueue.submit(createOrderDto(UUID.randomUUID()));
+
+        //when
+        twoSubmissionsQueue.stop();
+
+        //then
+        verify(orderService).createSubmittedOrders(argThat((List<OrderSubmission> submissions) ->
+                submissions.size() == 1 && submissions.getFirst().orderId().equals(retried)));
+        verify(orderService, never()).createSubmittedOrders(argThat((List<OrderSubmission> submissions) ->
+                submissions.stream().anyMatch(submission -> submission.orderId().equals(committed))));
+        assertThat(registry.findRejected(committed)).isEmpty();
+        assertThat(registry.findRejected(retried)).isEmpty();
+    }
+
+    private static List<CreateOrderResultDto> created(List<OrderSubmission> submissions) {
+        return IntStream.range(0, submissions.size())
+                .mapToObj(index -> CreateOrderResultDto.created(index, submissions.get(index).orderId().id()))
+                .toList();
+    }
+}
@@ -0,0 +1,98 @@
+package pl.kopytka.application;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import pl.kopytka.application.dto.CreateCustomerDto;
+import pl.kopytka.application.exception.CustomerNotFoundException;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static pl.kopytka.application.OrderFixtures.createOrderDto;
+
+@SpringBootTest(properties = "kopytka.outbox.relay-enabled=false")
+class OutboxRelayTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private InMemoryOutboxEventSink sink;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void shouldRelayOrderLifecycleEventsInOrder() {
+        //given
+        var customerId = customerService.addCustomer(new CreateCustomerDto("Ferdynand", "Kiepski", "ferdek.outbox@gmail.com"));
+        var orderId = orderService.createOrder(createOrderDto(customerId.id()));
+        orderService.pay(orderId);
+
+        //when
+        outboxRelay.relayBatch();
+
+        //then
+        assertThat(outboxEventRepository.count()).isZero();
+        assertThat(meterRegistry.get("outbox.relay.oldest.age").gauge().value()).isZero();
+        assertThat(sink.messages())
+                .filteredOn(message -> message.aggregateId().equals(orderId.id()))
+                .extracting(OutboxMessage::type)
+                .containsExactly(OrderOutbox.ORDER_CREATED, OrderOutbox.ORDER_PAID);
+        assertThat(sink.messages())
+                .filteredOn(message -> message.aggregateId().equals(orderId.id()))
+                .first()
+                .extracting(OutboxMessage::payload)
+                .asString()
+                .contains(orderId.id().toString(), customerId.id().toString(), "20.00");
+    }
+
+    @Test
+    void shouldNotStoreEventWhenOrderIsNotCreated() {
+        //given
+        var eventsBefore = outboxEventRepository.count();
+
+        //when
+        assertThrows(CustomerNotFoundException.class, () -> orderService.createOrder(createOrderDto(UUID.randomUUID())));
+
+        //then
+        assertThat(outboxEventRepository.count()).isEqualTo(eventsBefore);
+    }
+
+    @Test
+    void shouldAppendMessagesToFileAsJsonLines(@TempDir Path directory) throws Exception {
+        //given
+        var file = directory.resolve("outbox.ndjson");
+        var properties = new OutboxProperties(false, 100, Duration.ofSeconds(1), "file", file, 0);
+        var fileSink = new FileOutboxEventSink(properties, new ObjectMapper().findAndRegisterModules());
+        var aggregateId = UUID.randomUUID();
+
+        //when
+        fileSink.publish(List.of(new OutboxMessage(1, aggregateId, "OrderCreated", "{}", Instant.now())));
+        fileSink.publish(List.of(new OutboxMessage(2, aggregateId, "OrderPaid", "{}", Instant.now())));
+
+        //then
+        assertThat(Files.readAllLines(file))
+                .hasSize(2)
+                .allSatisfy(line -> assertThat(line).contains(aggregateId.toString()));
+    }
+}
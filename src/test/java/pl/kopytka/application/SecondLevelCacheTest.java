@@ -0,0 +1,117 @@
+package pl.kopytka.application;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+import pl.kopytka.application.dto.CreateCustomerDto;
+import pl.kopytka.application.dto.CreateOrderAddressDto;
+import pl.kopytka.application.dto.CreateOrderDto;
+import pl.kopytka.application.dto.CreateOrderItemDto;
+import pl.kopytka.domain.Customer;
+import pl.kopytka.domain.CustomerId;
+import pl.kopytka.domain.Order;
+import pl.kopytka.domain.OrderId;
+import pl.kopytka.domain.OrderItem;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "kopytka.outbox.relay-enabled=false")
+class SecondLevelCacheTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @Test
+    void shouldLoadOrderCustomerAddressAndItemsFromCacheOnRepeatedReads() {
+        //given
+        var orderId = createOrder("ferdek.l2@gmail.com");
+        loadOrder(orderId);
+        statistics.clear();
+
+        //when
+        var items = loadOrder(orderId);
+
+        //then
+        assertThat(items).hasSize(2);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getDomainDataRegionStatistics(Customer.CACHE_REGION).getHitCount()).isEqualTo(1);
+        assertThat(statistics.getDomainDataRegionStatistics(Order.ITEMS_CACHE_REGION).getHitCount()).isEqualTo(1);
+        assertThat(statistics.getDomainDataRegionStatistics(OrderItem.CACHE_REGION).getHitCount()).isEqualTo(2);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", OrderItem.CACHE_REGION).tag("result", "hit")
+                .functionCounter().count()).isPositive();
+    }
+
+    @Test
+    void shouldSeeCommittedCustomerChangeInsteadOfCachedState() {
+        //given
+        var customerId = customerService.addCustomer(new CreateCustomerDto("Halina", "Kiepska", "halina.l2@gmail.com"));
+        findCustomer(customerId);
+
+        //when
+        transactionTemplate.executeWithoutResult(status -> {
+            var customer = customerRepository.findById(customerId).orElseThrow();
+            ReflectionTestUtils.setField(customer, "lastName", "Boczek");
+        });
+
+        //then
+        assertThat(findCustomer(customerId).getLastName()).isEqualTo("Boczek");
+    }
+
+    private List<OrderItem> loadOrder(OrderId orderId) {
+        return transactionTemplate.execute(status -> {
+            var order = orderRepository.findById(orderId).orElseThrow();
+            order.getAddress().getCity();
+            order.getCustomer().getEmail();
+            return List.copyOf(order.getItems());
+        });
+    }
+
+    private Customer findCustomer(CustomerId customerId) {
+        return transactionTemplate.execute(status -> customerRepository.findById(customerId).orElseThrow());
+    }
+
+    private OrderId createOrder(String email) {
+        var customerId = customerService.addCustomer(new CreateCustomerDto("Ferdynand", "Kiepski", email)).id();
+        var items = List.of(new CreateOrderItemDto(UUID.randomUUID(), 2, new BigDecimal("10.00"), new BigDecimal("20.00")),
+                new CreateOrderItemDto(UUID.randomUUID(), 1, new BigDecimal("5.50"), new BigDecimal("5.50")));
+        var address = new CreateOrderAddressDto("Ćwiartki", "51-000", "Wrocław", "3/4");
+        return orderService.createOrder(new CreateOrderDto(customerId, new BigDecimal("25.50"), items, address));
+    }
+}
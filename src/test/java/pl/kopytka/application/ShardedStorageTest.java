@@ -0,0 +1,169 @@
+package pl.kopytka.application;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionTemplate;
+import pl.kopytka.application.dto.CreateCustomerDto;
+import pl.kopytka.application.dto.CreateOrderResultDto;
+import pl.kopytka.application.exception.CustomerAlreadyExistsException;
+import pl.kopytka.domain.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static pl.kopytka.application.OrderFixtures.createOrderDto;
+
+@SpringBootTest(properties = {
+        "kopytka.outbox.relay-enabled=false",
+        "kopytka.sharding.shards[0].url=jdbc:h2:mem:shard0;DB_CLOSE_DELAY=-1",
+        "kopytka.sharding.shards[0].username=sa",
+        "kopytka.sharding.shards[1].url=jdbc:h2:mem:shard1;DB_CLOSE_DELAY=-1",
+        "kopytka.sharding.shards[1].username=sa",
+        "kopytka.sharding.shards[2].url=jdbc:h2:mem:shard2;DB_CLOSE_DELAY=-1",
+        "kopytka.sharding.shards[2].username=sa"})
+class ShardedStorageTest {
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ShardRoutingDataSource shardRoutingDataSource;
+
+    @Test
+    void shouldStoreCustomersWithTheirOrdersOnTheirHomeShard() {
+        //given
+        var customerIds = IntStream.range(0, 12)
+                .mapToObj(i -> customerService.addCustomer(new CreateCustomerDto("Ferdynand", "Kiepski", "ferdek" + i + "@shards.pl")))
+                .toList();
+
+        //when
+        var orderIds = customerIds.stream()
+                .map(customerId -> orderService.createOrder(createOrderDto(customerId.id())))
+                .toList();
+        var batchOrderIds = orderService.createOrders(customerIds.stream().map(customerId -> createOrderDto(customerId.id())).toList())
+                .stream()
+                .map(CreateOrderResultDto::orderId)
+                .map(OrderId::new)
+                .toList();
+
+        //then
+        assertThat(customerIds).extracting(customerId -> shardRouter.shardOf(customerId.id())).contains(0, 1, 2);
+        for (int i = 0; i < customerIds.size(); i++) {
+            int home = shardRouter.shardOf(customerIds.get(i).id());
+            assertThat(shardsHolding(customerIds.get(i))).containsExactly(home);
+            assertThat(shardRouter.shardOf(orderIds.get(i).id())).isEqualTo(home);
+            assertThat(shardRouter.shardOf(batchOrderIds.get(i).id())).isEqualTo(home);
+            assertThat(orderService.getCustomerOrders(customerIds.get(i), null, 10).orders()).hasSize(2);
+        }
+    }
+
+    @Test
+    void shouldPayOrderOnItsShard() {
+        //given
+        var customerId = customerService.addCustomer(new CreateCustomerDto("Marian", "Paździoch", "marian@shards.pl"));
+        var orderId = orderService.createOrder(createOrderDto(customerId.id()));
+
+        //when
+        orderService.pay(orderId);
+
+        //then
+        assertThat(orderService.getOrderById(orderId).status()).isEqualTo(OrderStatus.PAID);
+        assertThat(customerService.getCustomerOrderStats(customerId.id()).paidOrderCount()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldRejectDuplicateEmailRegardlessOfCase() {
+        //given
+        customerService.addCustomer(new CreateCustomerDto("Halina", "Kiepska", "halina@shards.pl"));
+
+        //when & then
+        assertThatThrownBy(() -> customerService.addCustomer(new CreateCustomerDto("Halina", "Kiepska", "HALINA@shards.pl")))
+                .isInstanceOf(CustomerAlreadyExistsException.class);
+    }
+
+    @Test
+    void shouldFindOrderStoredAwayFromItsHomeShard() {
+        //given
+        var customer = new Customer("Arnold", "Boczek", "boczek@shards.pl");
+        var orderId = new OrderId(UUID.randomUUID());
+        int shard = (shardRouter.shardOf(orderId.id()) + 1) % shardRouter.shardCount();
+        shardRouter.on(shard, () -> transactionTemplate.execute(status -> {
+            customerRepository.persist(customer);
+            orderRepository.persist(new Order(orderId, customer, new Money(new BigDecimal("20.00")),
+                    List.of(new OrderItem(new ProductId(UUID.randomUUID()), new Money(new BigDecimal("10.00")),
+                            new Quantity(2), new Money(new BigDecimal("20.00")))),
+                    new OrderAddress("Ćwiartki", "51-000", "Wrocław", "3/4")));
+            return null;
+        }));
+
+        //when
+        orderService.pay(orderId);
+
+        //then
+        assertThat(orderService.getOrderById(orderId).status()).isEqualTo(OrderStatus.PAID);
+        assertThat(orderService.findOrderVersion(orderId)).isPresent();
+    }
+
+    @Test
+    void shouldWriteOrdersOnShardHoldingCustomerStoredAwayFromItsHomeShard() {
+        //given
+        var customer = new Customer("Waldemar", "Kiepski", "waldus@shards.pl");
+        var customerId = customer.getCustomerId();
+        int shard = (shardRouter.shardOf(customerId.id()) + 1) % shardRouter.shardCount();
+        shardRouter.on(shard, () -> transactionTemplate.execute(status -> {
+            customerRepository.persist(customer);
+            return null;
+        }));
+
+        //when
+        var orderId = orderService.createOrder(createOrderDto(customerId.id()));
+        customerService.getCustomer(customerId.id());
+        var batchResults = orderService.createOrders(List.of(createOrderDto(customerId.id())));
+
+        //then
+        assertThat(batchResults).extracting(CreateOrderResultDto::errorMessage).containsOnlyNulls();
+        assertThat(shardRouter.on(shard, () -> orderRepository.findOrderSummaries(customerId, Limit.of(10)))).hasSize(2);
+        assertThat(orderService.getOrderById(orderId).customerId()).isEqualTo(customerId.id());
+        assertThat(customerService.getCustomerOrderStats(customerId.id()).orderCount()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldConfigureShardPoolsWithSpringDatasourceHikariSettings() {
+        //expect
+        assertThat(shardRoutingDataSource.getResolvedDataSources().values())
+                .hasSize(3)
+                .allSatisfy(shard -> assertThat(shard).isInstanceOfSatisfying(HikariDataSource.class, pool -> {
+                    assertThat(pool.getMaximumPoolSize()).isEqualTo(20);
+                    assertThat(pool.getConnectionTimeout()).isEqualTo(5000);
+                }));
+    }
+
+    private List<Integer> shardsHolding(CustomerId customerId) {
+        return IntStream.range(0, shardRouter.shardCount())
+                .filter(shard -> shardRouter.on(shard, () -> customerRepository.existsById(customerId)))
+                .boxed()
+                .toList();
+    }
+}
@@ -0,0 +1,92 @@
+package pl.kopytka.application;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SingleFlightTest {
+
+    private final SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+
+    @Test
+    void shouldShareResultOfRunningCallWithConcurrentCallers() throws Exception {
+        //given
+        var executions = new AtomicInteger();
+        var leaderStarted = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+
+        //when
+        var results = new ArrayList<Future<Integer>>();
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            results.add(executor.submit(() -> singleFlight.execute("order", () -> {
+                leaderStarted.countDown();
+                await(release);
+                return executions.incrementAndGet();
+            })));
+            leaderStarted.await();
+            for (int i = 0; i < 50; i++) {
+                results.add(executor.submit(() -> singleFlight.execute("order", executions::incrementAndGet)));
+            }
+            TimeUnit.MILLISECONDS.sleep(100);
+            release.countDown();
+        }
+
+        //then
+        assertEquals(1, executions.get());
+        for (var result : results) {
+            assertEquals(1, result.get());
+        }
+    }
+
+    @Test
+    void shouldPropagateFailureToConcurrentCallers() throws Exception {
+        //given
+        var leaderStarted = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+
+        //when
+        Future<Integer> leader;
+        Future<Integer> follower;
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            leader = executor.submit(() -> singleFlight.execute("order", () -> {
+                leaderStarted.countDown();
+                await(release);
+                throw new IllegalStateException("payment failed");
+            }));
+            leaderStarted.await();
+            follower = executor.submit(() -> singleFlight.execute("order", () -> 1));
+            TimeUnit.MILLISECONDS.sleep(100);
+            release.countDown();
+        }
+
+        //then
+        var leaderFailure = assertThrows(ExecutionException.class, leader::get);
+        var followerFailure = assertThrows(ExecutionException.class, follower::get);
+        assertThat(leaderFailure.getCause()).isInstanceOf(IllegalStateException.class);
+        assertThat(followerFailure.getCause()).isSameAs(leaderFailure.getCause());
+    }
+
+    @Test
+    void shouldRunAgainAfterPreviousCallFinished() {
+        assertEquals(1, singleFlight.execute("order", () -> 1));
+        assertEquals(2, singleFlight.execute("order", () -> 2));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
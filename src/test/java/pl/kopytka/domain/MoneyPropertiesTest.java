@@ -0,0 +1,94 @@
+package pl.kopytka.domain;
+
+import net.jqwik.api.ForAll;
+import net.jqwik.api.Property;
+import net.jqwik.api.constraints.BigRange;
+import net.jqwik.api.constraints.IntRange;
+import net.jqwik.api.constraints.Scale;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Checks the fixed-point {@link Money} against the scale-2, HALF_EVEN {@link BigDecimal} arithmetic it replaced.
+ */
+class MoneyPropertiesTest {
+
+    @Property
+    void shouldKeepAmountOfBigDecimalImplementation(
+            @ForAll @BigRange(min = "0", max = "1000000000000") @Scale(6) BigDecimal amount) {
+        assertThat(new Money(amount).amount()).isEqualTo(reference(amount));
+    }
+
+    @Property
+    void shouldAddLikeBigDecimalImplementation(
+            @ForAll @BigRange(min = "0", max = "1000000000000") @Scale(4) BigDecimal first,
+            @ForAll @BigRange(min = "0", max = "1000000000000") @Scale(4) BigDecimal second) {
+        var expected = reference(reference(first).add(reference(second)));
+
+        assertThat(new Money(first).add(new Money(second)).amount()).isEqualTo(expected);
+    }
+
+    @Property
+    void shouldSubtractLikeBigDecimalImplementation(
+            @ForAll @BigRange(min = "0", max = "1000000000000") @Scale(4) BigDecimal first,
+            @ForAll @BigRange(min = "0", max = "1000000000000") @Scale(4) BigDecimal second) {
+        var expected = reference(first).subtract(reference(second));
+        var minuend = new Money(first);
+        var subtrahend = new Money(second);
+
+        if (expected.signum() < 0) {
+            assertThatThrownBy(() -> minuend.subtract(subtrahend))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Amount cannot be negative");
+        } else {
+            assertThat(minuend.subtract(subtrahend).amount()).isEqualTo(reference(expected));
+        }
+    }
+
+    @Property
+    void shouldMultiplyLikeBigDecimalImplementation(
+            @ForAll @BigRange(min = "0", max = "1000000000") @Scale(4) BigDecimal amount,
+            @ForAll @IntRange(min = 1, max = 100_000) int multiplier) {
+        var expected = reference(reference(amount).multiply(new BigDecimal(multiplier)));
+
+        assertThat(new Money(amount).multiply(multiplier).amount()).isEqualTo(expected);
+    }
+
+    @Property
+    void shouldBeEqualWhenBigDecimalAmountsAreEqual(
+            @ForAll @BigRange(min = "0", max = "1000") @Scale(3) BigDecimal first,
+            @ForAll @BigRange(min = "0", max = "1000") @Scale(3) BigDecimal second) {
+        var firstMoney = new Money(first);
+        var secondMoney = new Money(second);
+
+        assertThat(firstMoney.equals(secondMoney)).isEqualTo(reference(first).equals(reference(second)));
+        if (firstMoney.equals(secondMoney)) {
+            assertThat(firstMoney.hashCode()).isEqualTo(secondMoney.hashCode());
+        }
+    }
+
+    @Property
+    void shouldRejectNegativeAmountsLikeBigDecimalImplementation(
+            @ForAll @BigRange(min = "-1000000", max = "-0.000001") @Scale(6) BigDecimal amount) {
+        assertThatThrownBy(() -> new Money(amount))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Amount cannot be negative");
+    }
+
+    @Property
+    void shouldConvertToAndFromDatabaseColumnWithoutLoss(
+            @ForAll @BigRange(min = "0", max = "1000000000000") @Scale(2) BigDecimal amount) {
+        var converter = new MoneyConverter();
+        var money = new Money(amount);
+
+        assertThat(converter.convertToEntityAttribute(converter.convertToDatabaseColumn(money))).isEqualTo(money);
+    }
+
+    private static BigDecimal reference(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_EVEN);
+    }
+}
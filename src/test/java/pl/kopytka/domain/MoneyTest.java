@@ -58,6 +58,36 @@ class MoneyTest {
         assertEquals("Amount cannot be negative", exception.getMessage());
     }
 
+    @Test
+    void shouldThrowExceptionWhenSubtractionResultIsNegative() {
+        var money = new Money(new BigDecimal("10.00"));
+        var greaterMoney = new Money(new BigDecimal("10.01"));
+        var exception = assertThrows(IllegalArgumentException.class, () -> money.subtract(greaterMoney));
+        assertEquals("Amount cannot be negative", exception.getMessage());
+    }
+
+    @Test
+    void shouldThrowExceptionWhenAdditionOverflows() {
+        var money = new Money(new BigDecimal("92233720368547758.07"));
+        var cent = new Money(new BigDecimal("0.01"));
+        var exception = assertThrows(IllegalArgumentException.class, () -> money.add(cent));
+        assertEquals("Amount is out of range: 92233720368547758.07 + 0.01", exception.getMessage());
+    }
+
+    @Test
+    void shouldThrowExceptionWhenMultiplicationOverflows() {
+        var money = new Money(new BigDecimal("90000000000000000.00"));
+        var exception = assertThrows(IllegalArgumentException.class, () -> money.multiply(2));
+        assertEquals("Amount is out of range: 90000000000000000.00 * 2", exception.getMessage());
+    }
+
+    @Test
+    void shouldThrowExceptionWhenAmountIsOutOfRange() {
+        var tooBigAmount = new BigDecimal("92233720368547758.08");
+        var exception = assertThrows(IllegalArgumentException.class, () -> new Money(tooBigAmount));
+        assertEquals("Amount is out of range: 92233720368547758.08", exception.getMessage());
+    }
+
     @Test
     void shouldThrowExceptionWhenMultiplierIsZero() {
         var money = new Money(new BigDecimal("10.00"));
@@ -44,5 +44,21 @@ class OrderItemTest {
         assertEquals("Total price should be equal to price multiplied by quantity. Expected: " +
                 price.multiply(quantity.value()) + " but was: " + incorrectTotalPrice, orderDomainException.getMessage());
     }
+
+    @Test
+    void shouldThrowExceptionWhenTotalPriceOverflows() {
+        // given
+        var productId = ProductId.newOne();
+        var price = new Money(new BigDecimal("90000000000000000.00"));
+        var quantity = new Quantity(2);
+        var totalPrice = new Money(new BigDecimal("90000000000000000.00"));
+
+        //when
+        var orderDomainException = assertThrows(OrderDomainException.class,
+                () -> new OrderItem(productId, price, quantity, totalPrice));
+
+        //then
+        assertEquals("Amount is out of range: 90000000000000000.00 * 2", orderDomainException.getMessage());
+    }
 }
 
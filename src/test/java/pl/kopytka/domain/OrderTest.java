@@ -59,6 +59,23 @@ class OrderTest {
                 " is different than order items total: " + sumOfOrderItemsPrice, orderDomainException.getMessage());
     }
 
+    @Test
+    void shouldThrowExceptionWhenItemTotalsOverflow() {
+        //given
+        var customer = new Customer("Waldemar", "Kiepski", "waldek@gmail.com");
+        var price = new Money(new BigDecimal("90000000000000000.00"));
+        var items = List.of(new OrderItem(ProductId.newOne(), price, new Quantity(1), price),
+                new OrderItem(ProductId.newOne(), price, new Quantity(1), price));
+        var address = new OrderAddress("Boczka", "12345", "Arnoldowo", "1A");
+
+        //when
+        var orderDomainException = assertThrows(OrderDomainException.class,
+                () -> new Order(customer, price, items, address));
+
+        //then
+        assertEquals("Order items total is out of range", orderDomainException.getMessage());
+    }
+
     @Test
     void shouldAllowPaymentWhenOrderStatusIsPending() {
         //given
@@ -84,6 +101,20 @@ class OrderTest {
         assertEquals("Order is not in correct state for pay operation", orderDomainException.getMessage());
     }
 
+    @Test
+    void shouldRecordPaymentTimeAsUpdateTime() {
+        //given
+        var order = createOrder();
+        var paidAt = Instant.parse("2025-08-25T10:15:30Z");
+
+        //when
+        order.pay(paidAt);
+
+        //then
+        assertThat(order.getStatus()).isEqualTo(Order.PAID_STATUS);
+        assertThat(order.getLastUpdateAt()).isEqualTo(paidAt);
+    }
+
     private Order createOrder() {
         var customer = new Customer("Waldemar", "Kiepski", "waldek@gmail.com");
         var item = new OrderItem(ProductId.newOne(), new Money(new BigDecimal("10.00")), new Quantity(2), new Money(new BigDecimal("20.00")));
@@ -0,0 +1,114 @@
+package pl.kopytka.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UuidV7Test {
+
+    @Test
+    void shouldGenerateVersion7IdWithCurrentTimestamp() {
+        long before = System.currentTimeMillis();
+        var id = UuidV7.next();
+
+        assertEquals(7, id.version());
+        assertEquals(2, id.variant());
+        assertTrue((id.getMostSignificantBits() >>> 16) >= before);
+    }
+
+    @Test
+    void shouldGenerateStrictlyIncreasingIdsWithinOneMillisecond() {
+        var previous = UuidV7.next();
+        for (int i = 0; i < 100_000; i++) {
+            var next = UuidV7.next();
+            assertTrue(previous.compareTo(next) < 0, () -> previous + " is not before " + next);
+        }
+    }
+
+    @Test
+    void shouldCarrySequenceOverflowIntoTimestamp() {
+        long timestamp = 1_700_000_000_000L;
+        var lastInMillisecond = UuidV7.fromTimestampAndSequence((timestamp << 12) | 0xFFF, 0);
+        var firstAfterOverflow = UuidV7.fromTimestampAndSequence(((timestamp << 12) | 0xFFF) + 1, 0);
+
+        assertTrue(lastInMillisecond.compareTo(firstAfterOverflow) < 0);
+        assertEquals(timestamp + 1, firstAfterOverflow.getMostSignificantBits() >>> 16);
+        assertEquals(7, firstAfterOverflow.version());
+    }
+
+    @Test
+    void shouldGenerateUniqueIdsFromManyThreads() throws Exception {
+        int threads = 8;
+        int idsPerThread = 50_000;
+        Callable<List<UUID>> generator = () -> {
+            var ids = new ArrayList<UUID>(idsPerThread);
+            for (int i = 0; i < idsPerThread; i++) {
+                ids.add(UuidV7.next());
+            }
+            return ids;
+        };
+
+        var unique = new HashSet<UUID>();
+        try (var executor = Executors.newFixedThreadPool(threads)) {
+            var futures = new ArrayList<Future<List<UUID>>>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(generator));
+            }
+            for (var future : futures) {
+                var ids = future.get();
+                for (int i = 1; i < ids.size(); i++) {
+                    assertTrue(ids.get(i - 1).compareTo(ids.get(i)) < 0);
+                }
+                unique.addAll(ids);
+            }
+        }
+
+        assertEquals(threads * idsPerThread, unique.size());
+    }
+
+    @Test
+    void shouldEmbedBucketWithoutBreakingOrder() {
+        var previous = UuidV7.next(1023);
+        for (int bucket = 0; bucket < UuidV7.BUCKETS; bucket++) {
+            var next = UuidV7.next(bucket);
+
+            assertEquals(bucket, UuidV7.bucket(next));
+            assertEquals(7, next.version());
+            assertEquals(2, next.variant());
+            assertTrue(previous.compareTo(next) < 0);
+            previous = next;
+        }
+    }
+
+    @Test
+    void shouldRejectBucketOutOfRange() {
+        assertThrows(IllegalArgumentException.class, () -> UuidV7.next(UuidV7.BUCKETS));
+        assertThrows(IllegalArgumentException.class, () -> UuidV7.next(-1));
+    }
+
+    @Test
+    void shouldPlaceCustomerAndItsOrdersInOneBucketDerivedFromEmail() {
+        var customerId = CustomerId.newOne("ferdek@gmail.com");
+
+        assertEquals(customerId.bucket(), CustomerId.newOne("ferdek@gmail.com").bucket());
+        assertEquals(customerId.bucket(), OrderId.newOne(customerId).bucket());
+    }
+
+    @Test
+    void shouldKeepAcceptingRandomIds() {
+        var legacyId = UUID.randomUUID();
+
+        assertEquals(legacyId, new OrderId(legacyId).id());
+        assertEquals(legacyId, new CustomerId(legacyId).id());
+    }
+}
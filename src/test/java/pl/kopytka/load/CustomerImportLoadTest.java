@@ -0,0 +1,54 @@
+package pl.kopytka.load;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import pl.kopytka.application.dto.CustomerImportReportDto;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class CustomerImportLoadTest {
+
+    private static final int CUSTOMERS = 100_000;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    void shouldImportHundredThousandCustomersWithinOneMinute() {
+        //given
+        var csv = new StringBuilder("firstName,lastName,email\n");
+        for (int i = 0; i < CUSTOMERS; i++) {
+            csv.append("Import,Customer,import").append(i).append("@gmail.com\n");
+        }
+        var headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType("text/csv"));
+
+        //when
+        long start = System.nanoTime();
+        var response = restTemplate.postForEntity("http://localhost:" + port + "/api/customers/import",
+                new HttpEntity<>(csv.toString(), headers), CustomerImportReportDto.class);
+        var elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        //then
+        log.info("Imported {} customers in {} ms", response.getBody().imported(), elapsed.toMillis());
+        assertThat(response.getBody().errors()).isEmpty();
+        assertThat(response.getBody().imported()).isEqualTo(CUSTOMERS);
+        assertThat(elapsed).isLessThan(Duration.ofMinutes(1));
+    }
+}
@@ -0,0 +1,90 @@
+package pl.kopytka.load;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import pl.kopytka.application.CustomerRepository;
+import pl.kopytka.application.dto.CreateOrderAddressDto;
+import pl.kopytka.application.dto.CreateOrderDto;
+import pl.kopytka.application.dto.CreateOrderItemDto;
+import pl.kopytka.application.dto.CreateOrderResultDto;
+import pl.kopytka.domain.Customer;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class OrderBatchLoadTest {
+
+    private static final int ORDERS = 2_000;
+    private static final int BATCH_SIZE = 500;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Test
+    void batchEndpointShouldBeAtLeastTenTimesFasterThanSingleOrderEndpoint() {
+        //given
+        var customerIds = IntStream.range(0, 100)
+                .mapToObj(i -> customerRepository.save(new Customer("Load", "Test", "load" + i + "@gmail.com")).getCustomerId().id())
+                .toList();
+        var orders = IntStream.range(0, ORDERS)
+                .mapToObj(i -> createOrderDto(customerIds.get(i % customerIds.size())))
+                .toList();
+        warmUp(orders);
+
+        //when
+        long singleStart = System.nanoTime();
+        orders.forEach(order -> restTemplate.postForEntity(getBaseUrl(), order, Void.class));
+        double singleOrdersPerSecond = ORDERS / seconds(System.nanoTime() - singleStart);
+
+        long batchStart = System.nanoTime();
+        for (int from = 0; from < ORDERS; from += BATCH_SIZE) {
+            var response = restTemplate.postForEntity(getBaseUrl() + "/batch",
+                    orders.subList(from, from + BATCH_SIZE), CreateOrderResultDto[].class);
+            assertThat(response.getBody()).allSatisfy(result -> assertThat(result.errorMessage()).isNull());
+        }
+        double batchOrdersPerSecond = ORDERS / seconds(System.nanoTime() - batchStart);
+
+        //then
+        log.info("single: {} orders/s, batch: {} orders/s, speedup: {}x", Math.round(singleOrdersPerSecond),
+                Math.round(batchOrdersPerSecond), String.format("%.1f", batchOrdersPerSecond / singleOrdersPerSecond));
+        assertThat(batchOrdersPerSecond).isGreaterThanOrEqualTo(10 * singleOrdersPerSecond);
+    }
+
+    private void warmUp(List<CreateOrderDto> orders) {
+        orders.subList(0, 200).forEach(order -> restTemplate.postForEntity(getBaseUrl(), order, Void.class));
+        restTemplate.postForEntity(getBaseUrl() + "/batch", orders.subList(0, 200), CreateOrderResultDto[].class);
+    }
+
+    private static double seconds(long nanos) {
+        return nanos / 1_000_000_000.0;
+    }
+
+    private CreateOrderDto createOrderDto(UUID customerId) {
+        var items = List.of(new CreateOrderItemDto(UUID.randomUUID(), 2, new BigDecimal("10.00"), new BigDecimal("20.00")),
+                new CreateOrderItemDto(UUID.randomUUID(), 1, new BigDecimal("34.56"), new BigDecimal("34.56")));
+        var address = new CreateOrderAddressDto("Małysza", "94-000", "Adasiowo", "12");
+        return new CreateOrderDto(customerId, new BigDecimal("54.56"), items, address);
+    }
+
+    private String getBaseUrl() {
+        return "http://localhost:" + port + "/api/orders";
+    }
+}
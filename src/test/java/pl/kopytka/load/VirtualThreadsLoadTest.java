@@ -0,0 +1,144 @@
+package pl.kopytka.load;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import pl.kopytka.KopytkaNowApplication;
+import pl.kopytka.application.CustomerService;
+import pl.kopytka.application.dto.CreateCustomerDto;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Mixed workload under a slow database: most requests are customer reads served from the cache, the rest list
+ * orders and wait on the database. With platform threads the slow requests occupy the whole Tomcat pool and the
+ * cheap ones queue behind them.
+ */
+@Slf4j
+@Tag("load")
+class VirtualThreadsLoadTest {
+
+    private static final int CLIENTS = 400;
+    private static final int REQUESTS_PER_CLIENT = 25;
+    private static final long STATEMENT_LATENCY_MS = 50;
+
+    @Test
+    void shouldCompareThroughputAndLatencyWithVirtualThreadsOnAndOff() throws Exception {
+        var platform = runLoad(false);
+        var virtual = runLoad(true);
+
+        log.info("platform threads: {} req/s, p99 {} ms", Math.round(platform.throughput()), platform.p99());
+        log.info("virtual threads: {} req/s, p99 {} ms", Math.round(virtual.throughput()), virtual.p99());
+        assertThat(virtual.throughput()).isGreaterThan(platform.throughput());
+        assertThat(virtual.p99()).isLessThan(platform.p99());
+    }
+
+    private LoadResult runLoad(boolean virtualThreads) throws Exception {
+        try (var context = new SpringApplicationBuilder(KopytkaNowApplication.class, SlowDatabaseConfiguration.class)
+                .properties("server.port=0",
+                        "spring.threads.virtual.enabled=" + virtualThreads,
+                        "server.tomcat.threads.max=50",
+                        "spring.datasource.hikari.maximum-pool-size=10",
+                        "spring.datasource.hikari.connection-timeout=30000")
+                .run()) {
+            var baseUrl = "http://localhost:" + ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+            var customerId = context.getBean(CustomerService.class)
+                    .addCustomer(new CreateCustomerDto("Load", "Test", "load@gmail.com")).id();
+            return fire(baseUrl, customerId);
+        }
+    }
+
+    private LoadResult fire(String baseUrl, UUID customerId) throws InterruptedException, ExecutionException {
+        var latencies = Collections.synchronizedList(new ArrayList<Long>());
+        var customerUri = URI.create(baseUrl + "/api/customers/" + customerId);
+        var ordersUri = URI.create(baseUrl + "/api/customers/" + customerId + "/orders");
+
+        var clients = new ArrayList<Future<?>>();
+        long start = System.nanoTime();
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor();
+             var client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).executor(executor).build()) {
+            for (int i = 0; i < CLIENTS; i++) {
+                clients.add(executor.submit(() -> {
+                    for (int request = 0; request < REQUESTS_PER_CLIENT; request++) {
+                        var uri = ThreadLocalRandom.current().nextInt(5) == 0 ? ordersUri : customerUri;
+                        long requestStart = System.nanoTime();
+                        client.send(HttpRequest.newBuilder(uri).build(), HttpResponse.BodyHandlers.discarding());
+                        latencies.add((System.nanoTime() - requestStart) / 1_000_000);
+                    }
+                    return null;
+                }));
+            }
+            for (var future : clients) {
+                future.get();
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        var sorted = latencies.stream().sorted().toList();
+        return new LoadResult(sorted.size() / seconds, sorted.get((int) (sorted.size() * 0.99)));
+    }
+
+    private record LoadResult(double throughput, long p99) {
+    }
+
+    @Configuration
+    static class SlowDatabaseConfiguration {
+
+        @Bean
+        static BeanPostProcessor slowDataSourcePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? new SlowDataSource(dataSource) : bean;
+                }
+            };
+        }
+    }
+
+    private static class SlowDataSource extends DelegatingDataSource {
+
+        SlowDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            var connection = super.getConnection();
+            return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        if (method.getName().equals("prepareStatement")) {
+                            Thread.sleep(STATEMENT_LATENCY_MS);
+                        }
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException ex) {
+                            throw ex.getTargetException();
+                        }
+                    });
+        }
+    }
+}